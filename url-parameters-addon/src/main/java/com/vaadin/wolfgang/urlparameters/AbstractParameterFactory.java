@@ -1,39 +1,50 @@
 package com.vaadin.wolfgang.urlparameters;
 
 import lombok.Getter;
+import lombok.NonNull;
 import org.apache.commons.collections4.MultiValuedMap;
 import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractParameterFactory implements ParameterFactory {
 	@Getter
 	private MultiValuedMap<String, ViewStateParameterFactory.ViewParameterDefinition> viewParameterDefinitionMap = new ArrayListValuedHashMap<>();
-	@Getter
-	private Map<Type, Converter> converterByValueClass = new HashMap();
 	private final Map<String, Converter> converters = new HashMap<>();
+	private ConverterRegistry converterRegistry = new ConverterRegistry(Collections.emptyMap());
+	private final Map<String, ViewStateParameterIndex> viewStateParameterIndexes = new ConcurrentHashMap<>();
 
 	@Override
 	public Map<String, Converter> getConverters() {
 		return new HashMap<>(converters);
 	}
 
+	@Override
+	public ViewStateParameterIndex getViewStateParameterIndex(@NonNull String viewName) {
+		return viewStateParameterIndexes.computeIfAbsent(viewName, name -> new ViewStateParameterIndex(createViewStateParameters(name)));
+	}
+
+	@Override
+	public Map<Type, Converter> getConverterByValueClass() {
+		return converterRegistry.getConvertersByInternalClass();
+	}
+
+	@Override
+	public Converter getConverterByType(Type valueClass) {
+		return converterRegistry.getConverter(valueClass);
+	}
+
 	protected void registerConverters(Map<String, Converter> toRegister) {
 		converters.putAll(toRegister);
 	}
 
 	public void initialise() {
-		for (Map.Entry<String, Converter> converterEntry : getConverters().entrySet()) {
-			Converter converter = converterEntry.getValue();
-			Type converterInternalClass = converter.getInternalClass();
-			Converter replacedConverter = converterByValueClass.put(converterInternalClass, converter);
-			if (replacedConverter != null) {
-				throw new IllegalStateException("You have more than one converter configured for class " + converterInternalClass + ": " + replacedConverter + ", and " + converterEntry.getValue() + " Bean name: " + converterEntry.getKey());
-			}
-		}
+		converterRegistry = new ConverterRegistry(converters);
 		for (Map.Entry<String, ViewParameters> multi : getMultiParameters().entrySet()) {
 			String beanName = multi.getKey();
 			String viewName = getViewName(beanName);
@@ -83,6 +94,11 @@ public abstract class AbstractParameterFactory implements ParameterFactory {
 					public Class<? extends Converter> convertedBy() {
 						return methodDescriptor.getParameter().convertedBy();
 					}
+
+					@Override
+					public String[] dependsOn() {
+						return methodDescriptor.getParameter().dependsOn();
+					}
 				};
 				viewParameterDefinitionMap.put(viewName, new ViewStateParameterFactory.ViewParameterDefinition(viewParameter, beanName));
 			}
@@ -0,0 +1,27 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The AsyncConverter is a Converter whose conversions take long - e.g. loading an entity by its id from a repository.
+ * When ViewStateParameters has a conversion executor configured it converts the parameters of such converters in the
+ * background while a view is entered, the view gets their values as soon as they are available. See
+ * <code>ViewStateParameters.setConversionExecutor</code>.
+ *
+ * @param <T> the type parameter
+ */
+public interface AsyncConverter<T> extends Converter<T> {
+	/**
+	 * Starts to create or find the instance of internalClass according to the passed stringRepresentation. The default
+	 * runs getInternalObject on the executor, converters that have an asynchronous API to their data of their own
+	 * should override this.
+	 *
+	 * @param stringRepresentation How the parameter is represented in the url
+	 * @param executor             the executor to convert on - runs without the session lock held
+	 * @return the future instance, completed exceptionally if the string cannot be converted
+	 */
+	default CompletableFuture<T> getInternalObjectAsync(String stringRepresentation, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> getInternalObject(stringRepresentation), executor);
+	}
+}
@@ -0,0 +1,21 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The BulkConverter is a Converter that resolves several string representations at once - e.g. with one query to a
+ * repository instead of one per element. The collection converters use it for their elements when it is available.
+ *
+ * @param <T> the type parameter
+ */
+public interface BulkConverter<T> extends Converter<T> {
+	/**
+	 * Create or find the instances of internalClass according to the passed stringRepresentations.
+	 *
+	 * @param stringRepresentations How the elements are represented in the url, may contain duplicates
+	 * @return the instances by their string representations - a string without an instance may be left out, the
+	 * element is null then (as if getInternalObject returned null)
+	 */
+	Map<String, T> getInternalObjects(Collection<String> stringRepresentations);
+}
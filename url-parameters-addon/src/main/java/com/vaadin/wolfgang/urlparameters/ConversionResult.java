@@ -0,0 +1,81 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The ConversionResult is the outcome of <code>Converter.tryGetInternalObject</code>: either the converted value
+ * (which may be null) or a failure. Failures are shared and carry no exception, so garbage strings out of an url do not
+ * cost a stack trace.
+ *
+ * @param <T> the type of the value
+ */
+public final class ConversionResult<T> {
+	private static final ConversionResult<?> FAILURE = new ConversionResult<>(false, null);
+	private static final ConversionResult<?> NULL = new ConversionResult<>(true, null);
+
+	private final boolean success;
+	private final T value;
+
+	private ConversionResult(boolean success, T value) {
+		this.success = success;
+		this.value = value;
+	}
+
+	public static <T> ConversionResult<T> success(T value) {
+		return value != null ? new ConversionResult<>(true, value) : (ConversionResult<T>) NULL;
+	}
+
+	public static <T> ConversionResult<T> failure() {
+		return (ConversionResult<T>) FAILURE;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	/**
+	 * Gets the converted value
+	 *
+	 * @return the value, may be null
+	 * @throws IllegalStateException if the conversion failed
+	 */
+	public T getValue() {
+		if (!success) {
+			throw new IllegalStateException("Conversion failed");
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the converted value or the given one when the conversion failed
+	 *
+	 * @param other the value in case of a failure
+	 * @return the value
+	 */
+	public T orElse(T other) {
+		return success ? value : other;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ConversionResult)) {
+			return false;
+		}
+		ConversionResult<?> that = (ConversionResult<?>) o;
+		return success == that.success && Objects.deepEquals(value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.deepHashCode(new Object[]{success, value});
+	}
+
+	@Override
+	public String toString() {
+		return success ? "ConversionResult[" + value + "]" : "ConversionResult[failure]";
+	}
+}
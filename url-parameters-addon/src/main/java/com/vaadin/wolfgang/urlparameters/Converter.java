@@ -27,6 +27,22 @@ public interface Converter<T> {
 	 */
 	T getInternalObject(String stringRepresentation);
 
+	/**
+	 * Like getInternalObject, but a string that cannot be converted results in a failure instead of an exception.
+	 * Converters that can tell a wrong string without an exception should override this - the default just catches
+	 * the exception of getInternalObject.
+	 *
+	 * @param stringRepresentation How the parameter is represented in the url
+	 * @return the result holding the instance represented by the stringRepresentation or a failure
+	 */
+	default ConversionResult<T> tryGetInternalObject(String stringRepresentation) {
+		try {
+			return ConversionResult.success(getInternalObject(stringRepresentation));
+		} catch (RuntimeException e) {
+			return ConversionResult.failure();
+		}
+	}
+
 	/**
 	 * Produce the string representation of the given object that you are able to identify via 'getInternalObject.
 	 * For an ICO with the id 4711 this could be "4711" when the the internal class is InitialCoinOffer.class,
@@ -38,4 +54,15 @@ public interface Converter<T> {
 	 */
 	String getStringRepresentation(T o);
 
+	/**
+	 * Tells whether the string representations of this converter are decimal numbers, e.g. numeric ids. Only then the
+	 * collection converters read an element like "10-12" as a range of numbers (see CompactEncoding) - the element
+	 * strings of any other converter are taken as they are.
+	 *
+	 * @return true if every string representation is a decimal number
+	 */
+	default boolean isNumeric() {
+		return false;
+	}
+
 }
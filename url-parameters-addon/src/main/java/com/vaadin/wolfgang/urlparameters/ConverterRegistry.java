@@ -0,0 +1,121 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import com.vaadin.wolfgang.urlparameters.impl.AssignableTypes;
+import lombok.NonNull;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ConverterRegistry finds the converter responsible for a value type. A type is resolved once and the result is
+ * kept - including the types no converter is responsible for. Resolving looks for
+ * <ol>
+ * <li>the converter whose internal class is the type</li>
+ * <li>a converter of a parameterized type (like a collection of values) that converts the type as one of its
+ * supertypes or interfaces - these are collected when the registry is built</li>
+ * <li>any other converter that converts the type (e.g. by an overridden <code>converts</code>)</li>
+ * </ol>
+ * Converters are taken in the order of their names, so the same configuration always resolves a type the same way.
+ * A registry is safe to be used concurrently.
+ */
+public final class ConverterRegistry {
+	private final List<Converter> converters;
+	private final Map<Type, Converter> byInternalClass;
+	private final Map<Type, List<Converter>> bySuperType;
+	private final Map<Type, Optional<Converter>> resolved = new ConcurrentHashMap<>();
+
+	/**
+	 * Instantiates a new converter registry.
+	 *
+	 * @param converters the converters by their names
+	 * @throws IllegalStateException if two converters are configured for the same internal class
+	 */
+	public ConverterRegistry(@NonNull Map<String, Converter> converters) {
+		List<Converter> ordered = new ArrayList<>(converters.size());
+		Map<Type, Converter> internal = new LinkedHashMap<>();
+		Map<Type, List<Converter>> superTypes = new HashMap<>();
+		for (Map.Entry<String, Converter> converterEntry : new TreeMap<>(converters).entrySet()) {
+			Converter converter = converterEntry.getValue();
+			Type converterInternalClass = converter.getInternalClass();
+			Converter replacedConverter = internal.put(converterInternalClass, converter);
+			if (replacedConverter != null) {
+				throw new IllegalStateException("You have more than one converter configured for class " + converterInternalClass + ": " + replacedConverter + ", and " + converter + " Bean name: " + converterEntry.getKey());
+			}
+			ordered.add(converter);
+			for (Type superType : getAssignableTypes(converterInternalClass)) {
+				if (!superType.equals(converterInternalClass) && converter.converts(superType)) {
+					superTypes.computeIfAbsent(superType, type -> new ArrayList<>(1)).add(converter);
+				}
+			}
+		}
+		this.converters = Collections.unmodifiableList(ordered);
+		this.byInternalClass = Collections.unmodifiableMap(internal);
+		this.bySuperType = superTypes;
+	}
+
+	/**
+	 * Gets the converter responsible for the given type.
+	 *
+	 * @param valueClass the type of a value
+	 * @return the converter or null if there is none
+	 */
+	public Converter getConverter(@NonNull Type valueClass) {
+		Converter result = byInternalClass.get(valueClass);
+		if (result != null) {
+			return result;
+		}
+		return resolved.computeIfAbsent(valueClass, this::resolve).orElse(null);
+	}
+
+	/**
+	 * Gets the converters by the types they are configured for.
+	 *
+	 * @return an unmodifiable map
+	 */
+	public Map<Type, Converter> getConvertersByInternalClass() {
+		return byInternalClass;
+	}
+
+	public Collection<Converter> getConverters() {
+		return converters;
+	}
+
+	private Optional<Converter> resolve(Type valueClass) {
+		List<Converter> candidates = bySuperType.get(valueClass);
+		if (candidates != null) {
+			return Optional.of(candidates.get(0));
+		}
+		for (Converter converter : converters) {
+			if (converter.converts(valueClass)) {
+				return Optional.of(converter);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/*
+	the superclasses and interfaces of a parameterized type's raw class parameterized the same way: List<X> and
+	Collection<X> for ArrayList<X>
+	 */
+	private static Set<Type> getAssignableTypes(Type type) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Type rawType = parameterizedType.getRawType();
+			if (rawType instanceof Class) {
+				return AssignableTypes.of((Class<?>) rawType, parameterizedType.getActualTypeArguments());
+			}
+		}
+		return Collections.emptySet();
+	}
+}
@@ -0,0 +1,291 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The FragmentCodec reads and writes the parameter part of a uri fragment like <code>view/k=v&amp;k2=v2</code> in a
+ * single pass. Parameters are kept sorted by their names, so that the same state always results in the same fragment.
+ * Names and values may contain any character: '%', '&amp;', '=', '/' and '#' are percent-encoded when written and every
+ * percent-encoded sequence is decoded when read.
+ * A codec belongs to one UI: it reuses its buffer and one Parameters instance and must not be used concurrently.
+ */
+public final class FragmentCodec {
+	public static final char VIEW_SEPARATOR = '/';
+	public static final char PARAMETER_SEPARATOR = '&';
+	public static final char VALUE_SEPARATOR = '=';
+	private static final char ESCAPE = '%';
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+	private final StringBuilder buffer = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+	private Parameters spare = new Parameters();
+
+	/**
+	 * Gets an empty Parameters instance. Hand it back via release when it is not needed anymore - a nested call (e.g.
+	 * a setter navigating while the parameters of the previous navigation are being applied) gets a new instance.
+	 * Parameters that are not handed back (e.g. because a converter failed) are just left to the garbage collector.
+	 *
+	 * @return the parameters
+	 */
+	public Parameters borrow() {
+		Parameters result = spare;
+		if (result == null) {
+			return new Parameters();
+		}
+		spare = null;
+		return result;
+	}
+
+	/**
+	 * Hands back parameters taken via borrow or parse.
+	 *
+	 * @param parameters the parameters not used anymore
+	 */
+	public void release(@NonNull Parameters parameters) {
+		parameters.clear();
+		spare = parameters;
+	}
+
+	/**
+	 * Parses the parameter part of a fragment (the part after the view name and its separator).
+	 *
+	 * @param parameters the parameter string like "k=v&amp;k2=v2", may be null
+	 * @return borrowed parameters holding the decoded names and values - release them when done
+	 */
+	public Parameters parse(String parameters) {
+		Parameters result = borrow();
+		if (parameters == null) {
+			return result;
+		}
+		int length = parameters.length();
+		int start = 0;
+		while (start < length) {
+			int end = parameters.indexOf(PARAMETER_SEPARATOR, start);
+			if (end < 0) {
+				end = length;
+			}
+			if (end > start) {
+				int separator = parameters.indexOf(VALUE_SEPARATOR, start);
+				if (separator < 0 || separator > end) {
+					result.put(decode(parameters, start, end), "");
+				} else {
+					result.put(decode(parameters, start, separator), decode(parameters, separator + 1, end));
+				}
+			}
+			start = end + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Writes a fragment
+	 *
+	 * @param viewName   the name of the view or null to get the parameter part only
+	 * @param parameters the parameters; those with empty values are left out
+	 * @return the fragment like "view/k=v&amp;k2=v2" or just "view" when there are no parameters
+	 */
+	public String format(String viewName, @NonNull Parameters parameters) {
+		buffer.setLength(0);
+		if (viewName != null) {
+			buffer.append(viewName);
+		}
+		int viewLength = buffer.length();
+		for (int i = 0; i < parameters.size; i++) {
+			String value = parameters.values[i];
+			if (value != null && !value.isEmpty()) {
+				if (buffer.length() > viewLength) {
+					buffer.append(PARAMETER_SEPARATOR);
+				} else if (viewName != null) {
+					buffer.append(VIEW_SEPARATOR);
+				}
+				appendEncoded(parameters.names[i]);
+				buffer.append(VALUE_SEPARATOR);
+				appendEncoded(value);
+			}
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Gets the view name of a fragment
+	 *
+	 * @param location the fragment
+	 * @return the part before the first separator
+	 */
+	public static String getViewName(@NonNull String location) {
+		int slashIndex = location.indexOf(VIEW_SEPARATOR);
+		return slashIndex > -1 ? location.substring(0, slashIndex) : location;
+	}
+
+	private void appendEncoded(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (mustBeEncoded(c)) {
+				buffer.append(ESCAPE).append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+			} else {
+				buffer.append(c);
+			}
+		}
+	}
+
+	private static boolean mustBeEncoded(char c) {
+		return c == ESCAPE || c == PARAMETER_SEPARATOR || c == VALUE_SEPARATOR || c == VIEW_SEPARATOR || c == '#';
+	}
+
+	/*
+	decoded sequences are taken as UTF-8, a '%' not followed by two hex digits stays as it is
+	 */
+	static String decode(String s, int start, int end) {
+		int escape = s.indexOf(ESCAPE, start);
+		if (escape < 0 || escape >= end) {
+			return s.substring(start, end);
+		}
+		StringBuilder result = new StringBuilder(end - start);
+		result.append(s, start, escape);
+		byte[] bytes = null;
+		int i = escape;
+		while (i < end) {
+			char c = s.charAt(i);
+			if (c == ESCAPE && isEscapeSequence(s, i, end)) {
+				if (bytes == null) {
+					bytes = new byte[(end - i) / 3];
+				}
+				int count = 0;
+				while (i < end && s.charAt(i) == ESCAPE && isEscapeSequence(s, i, end)) {
+					bytes[count++] = (byte) (Character.digit(s.charAt(i + 1), 16) << 4 | Character.digit(s.charAt(i + 2), 16));
+					i += 3;
+				}
+				result.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+			} else {
+				result.append(c);
+				i++;
+			}
+		}
+		return result.toString();
+	}
+
+	private static boolean isEscapeSequence(String s, int index, int end) {
+		return index + 2 < end && Character.digit(s.charAt(index + 1), 16) > -1 && Character.digit(s.charAt(index + 2), 16) > -1;
+	}
+
+	/**
+	 * Parameters are name value pairs sorted by name. Putting the names in ascending order (as a codec reading its own
+	 * fragments does) just appends them.
+	 */
+	public static final class Parameters {
+		private static final int INITIAL_CAPACITY = 16;
+		private String[] names = new String[INITIAL_CAPACITY];
+		private String[] values = new String[INITIAL_CAPACITY];
+		private int size;
+
+		public int size() {
+			return size;
+		}
+
+		public String getName(int index) {
+			checkIndex(index);
+			return names[index];
+		}
+
+		public String getValue(int index) {
+			checkIndex(index);
+			return values[index];
+		}
+
+		/**
+		 * Gets the value of a parameter
+		 *
+		 * @param name the name of the parameter
+		 * @return the value (empty if the parameter is given without one) or null when the parameter is not there
+		 */
+		public String get(@NonNull String name) {
+			int index = indexOf(name);
+			return index > -1 ? values[index] : null;
+		}
+
+		/**
+		 * Sets the value of a parameter, replacing the previous one of the same name.
+		 *
+		 * @param name  the name of the parameter
+		 * @param value the value
+		 * @return true if the parameter did not have that value before
+		 */
+		public boolean put(@NonNull String name, String value) {
+			if (size == 0 || names[size - 1].compareTo(name) < 0) {
+				insert(size, name, value);
+				return true;
+			}
+			int index = indexOf(name);
+			if (index > -1) {
+				boolean changed = !Objects.equals(values[index], value);
+				values[index] = value;
+				return changed;
+			}
+			insert(-index - 1, name, value);
+			return true;
+		}
+
+		/**
+		 * Removes a parameter
+		 *
+		 * @param name the name of the parameter
+		 * @return true if the parameter was there
+		 */
+		public boolean remove(@NonNull String name) {
+			int index = indexOf(name);
+			if (index < 0) {
+				return false;
+			}
+			size--;
+			System.arraycopy(names, index + 1, names, index, size - index);
+			System.arraycopy(values, index + 1, values, index, size - index);
+			names[size] = null;
+			values[size] = null;
+			return true;
+		}
+
+		public void clear() {
+			Arrays.fill(names, 0, size, null);
+			Arrays.fill(values, 0, size, null);
+			size = 0;
+		}
+
+		private int indexOf(String name) {
+			return Arrays.binarySearch(names, 0, size, name);
+		}
+
+		private void insert(int index, String name, String value) {
+			if (size == names.length) {
+				names = Arrays.copyOf(names, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			System.arraycopy(names, index, names, index + 1, size - index);
+			System.arraycopy(values, index, values, index + 1, size - index);
+			names[index] = name;
+			values[index] = value;
+			size++;
+		}
+
+		private void checkIndex(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder("{");
+			for (int i = 0; i < size; i++) {
+				if (i > 0) {
+					result.append(", ");
+				}
+				result.append(names[i]).append('=').append(values[i]);
+			}
+			return result.append('}').toString();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+tells the values that cannot change after they have been created - only those may be remembered beyond the call
+that produced them: collections, arrays and entities can be modified in place without anybody noticing
+ */
+final class ImmutableValues {
+	private static final Set<Class<?>> IMMUTABLE_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+			Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class,
+			LocalDate.class, LocalTime.class, LocalDateTime.class, OffsetDateTime.class, ZonedDateTime.class,
+			Instant.class, Duration.class)));
+
+	private ImmutableValues() {
+	}
+
+	/**
+	 * Tells whether a value is of a class known to be immutable: strings, boxed primitives, enum values and the like
+	 *
+	 * @param value the value, may be null
+	 * @return true for values that cannot be modified in place
+	 */
+	static boolean isImmutable(Object value) {
+		return value == null || value instanceof Enum || IMMUTABLE_CLASSES.contains(value.getClass());
+	}
+}
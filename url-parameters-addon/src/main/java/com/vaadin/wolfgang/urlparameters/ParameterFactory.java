@@ -73,6 +73,17 @@ public interface ParameterFactory {
 		}
 	}
 
+	/**
+	 * Gets the parameters of a view. They only describe the parameters and can be shared by all UIs - implementations
+	 * are encouraged to create them once per view.
+	 *
+	 * @param viewName the name of the view
+	 * @return the index of the view's parameters
+	 */
+	default ViewStateParameterIndex getViewStateParameterIndex(@NonNull String viewName) {
+		return new ViewStateParameterIndex(createViewStateParameters(viewName));
+	}
+
 	default Collection<ViewStateParameter> createViewStateParameters(String viewName) {
 		MultiValuedMap<String, ViewStateParameterFactory.ViewParameterDefinition> viewParameterDefinitionMap = getViewParameterDefinitionMap();
 		if (!viewParameterDefinitionMap.containsKey(viewName)) {
@@ -0,0 +1,34 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import java.util.Collection;
+
+/**
+ * A ParameterRegistry lists the classes of a module that carry url parameter annotations, so that they can be found
+ * without scanning the classpath. Implementations are generated at compile time by the ParameterRegistryProcessor of
+ * the url-parameters-processor artifact and registered as a service in
+ * <code>META-INF/services/com.vaadin.wolfgang.urlparameters.ParameterRegistry</code>.
+ * Classes are given by their binary names (like "com.example.Outer$InnerView") so that the registry can be
+ * loaded without loading all the views.
+ */
+public interface ParameterRegistry {
+	/**
+	 * Gets the classes annotated with ViewParameter or ViewParameters.
+	 *
+	 * @return the binary class names
+	 */
+	Collection<String> getParameterClassNames();
+
+	/**
+	 * Gets the classes declaring methods annotated with ViewMethodParameter.
+	 *
+	 * @return the binary class names
+	 */
+	Collection<String> getMethodParameterClassNames();
+
+	/**
+	 * Gets the classes annotated with ViewName or one of the view name annotations the processor has been configured for.
+	 *
+	 * @return the binary class names
+	 */
+	Collection<String> getViewNameClassNames();
+}
@@ -0,0 +1,27 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import java.util.Set;
+
+/**
+ * A view implementing ParametersChangedListener is told once per navigation which of its parameters changed, after
+ * all of their values have been set - so that it loads its data once instead of once per setter.
+ * The notifications are made with the session of the view locked, those of background conversions via UI.access.
+ */
+public interface ParametersChangedListener {
+	/**
+	 * Called after the values of the parameters have been set. Not called when no value changed.
+	 *
+	 * @param parameterNames the names of the changed parameters in the order their values have been set
+	 */
+	void onParametersChanged(Set<String> parameterNames);
+
+	/**
+	 * Called when the values of parameters are converted in the background, see <code>AsyncConverter</code> - e.g. to
+	 * show a placeholder. Their values follow with a later call of onParametersChanged, unless another navigation
+	 * came first.
+	 *
+	 * @param parameterNames the names of the parameters whose values are pending
+	 */
+	default void onParametersPending(Set<String> parameterNames) {
+	}
+}
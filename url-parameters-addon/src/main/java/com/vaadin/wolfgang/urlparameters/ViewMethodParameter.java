@@ -38,4 +38,11 @@ public @interface ViewMethodParameter {
 	 * @return a converter class to convert the parameter
 	 */
 	Class<? extends Converter> convertedBy() default Converter.class;
+
+	/**
+	 * Depends on: The names of the parameters of the same view whose values have to be set before the value of this
+	 * parameter
+	 * @return the names of the parameters this parameter depends on
+	 */
+	String[] dependsOn() default {};
 }
@@ -54,4 +54,12 @@ public @interface ViewParameter {
 	 * @return the converter class when you prefer to configure the converter this way
 	 */
 	Class<? extends Converter> convertedBy() default Converter.class;
+
+	/**
+	 * Depends on: The names of the parameters of the same view whose values have to be set before the value of this
+	 * parameter, e.g. a customer before one of its accounts. Parameters without dependencies are set in the order of
+	 * their names.
+	 * @return the names of the parameters this parameter depends on
+	 */
+	String[] dependsOn() default {};
 }
@@ -4,22 +4,28 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Type;
-import java.util.Objects;
 
+/**
+ * The ViewStateParameter describes one parameter of a view: its name, its default value and how it gets converted.
+ * Instances are immutable and shared by all UIs, the actual values are kept per UI in a
+ * <code>ViewStateParameterValue</code> that gets passed to every method dealing with values.
+ *
+ * @param <T> the type parameter
+ */
 @ToString
 @Slf4j
 public abstract class ViewStateParameter<T> {
 	@Getter
-	private String viewName;
+	private final String viewName;
 	@Getter
-	private ViewParameter viewParameter;
+	private final ViewParameter viewParameter;
 	@Getter
-	private Converter<T> converter;
-	private boolean temp;
-	private T tempValue;
-	private T value;
+	private final Converter<T> converter;
+	// the converted default value, shared by all UIs - only immutable values are kept, any other is converted on every use
+	private volatile ConversionResult<T> defaultResult;
 
 	protected ViewStateParameter(@NonNull String viewName, @NonNull ViewParameter viewParameter, @NonNull Converter<T> converter) {
 		this.viewName = viewName;
@@ -35,53 +41,75 @@ public abstract class ViewStateParameter<T> {
 		return viewParameter.defaultValue();
 	}
 
+	/**
+	 * Gets the default value converted by the converter of this parameter. An immutable value (a string, a number, an
+	 * enum value, ...) is converted once on the first call, any other on every call - each caller gets its own instance.
+	 *
+	 * @return the default value
+	 * @throws RuntimeException the exception of the converter if the default value cannot be converted
+	 */
+	public T getDefaultInternalValue() {
+		ConversionResult<T> result = defaultResult;
+		if (result != null) {
+			return result.getValue();
+		}
+		String defaultValue = StringUtils.defaultString(getDefaultValue());
+		result = getConverter().tryGetInternalObject(defaultValue);
+		if (!result.isSuccess()) {
+			// let the converter tell what is wrong
+			return getConverter().getInternalObject(defaultValue);
+		}
+		T value = result.getValue();
+		if (ImmutableValues.isImmutable(value)) {
+			defaultResult = result;
+		}
+		return value;
+	}
+
 	public abstract Class<T> getParameterType();
 
-	public boolean setValue(T newValue, Object valueBean, boolean notify) {
-		boolean changed = !Objects.equals(value, newValue);
-		value = newValue;
-		return changed;
+	public boolean setValue(@NonNull ViewStateParameterValue<T> parameterValue, T newValue, Object valueBean, boolean notify) {
+		return parameterValue.setValue(newValue);
 	}
 
-	void setTempValue(T value, Object valueBean) {
-		tempValue = value;
-		temp = true;
+	void setTempValue(@NonNull ViewStateParameterValue<T> parameterValue, T value, Object valueBean) {
+		parameterValue.setTempValue(value);
 	}
 
-	void fireTempValue(Object valueBean) {
-		if (temp) {
+	void fireTempValue(@NonNull ViewStateParameterValue<T> parameterValue, Object valueBean) {
+		if (parameterValue.isTemp()) {
 			try {
-				setValue(tempValue, valueBean, true);
+				setValue(parameterValue, parameterValue.getTempValue(), valueBean, true);
 			} finally {
-				temp = false;
+				parameterValue.flushTempValue();
 			}
 		}
 	}
 
-	void flushTempValue() {
-		tempValue = null;
-		temp = false;
-
+	void flushTempValue(@NonNull ViewStateParameterValue<T> parameterValue) {
+		parameterValue.flushTempValue();
 	}
-	public T getValue(Object valueBean) {
-		if (temp) {
-			return tempValue;
-		}
-		return value;
+
+	public T getValue(@NonNull ViewStateParameterValue<T> parameterValue, Object valueBean) {
+		return parameterValue.getValue();
 	}
 
-	public void setStringValue(String stringValue, Object valueBean, boolean notify) {
+	public void setStringValue(@NonNull ViewStateParameterValue<T> parameterValue, String stringValue, Object valueBean, boolean notify) {
 		T value = getConverter().getInternalObject(stringValue);
-		setValue(value, valueBean, notify);
+		setValue(parameterValue, value, valueBean, notify);
 	}
 
-	public String getStringValue(Object valueBean) {
-		T value = getValue(valueBean);
-		if (value != null) {
-			return getConverter().getStringRepresentation(value);
-		} else {
+	public String getStringValue(@NonNull ViewStateParameterValue<T> parameterValue, Object valueBean) {
+		T value = getValue(parameterValue, valueBean);
+		if (value == null) {
 			return "";
 		}
+		String result = parameterValue.getStringValue(value);
+		if (result == null) {
+			result = getConverter().getStringRepresentation(value);
+			parameterValue.setStringValue(value, result);
+		}
+		return result;
 	}
 
 	public boolean convertsClass(@NonNull Type valueClass) {
@@ -5,32 +5,60 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.collections4.Transformer;
-import org.apache.commons.collections4.map.LazyMap;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // instanciate this bean in the scope where the actual parameter values are supposed to be valid
+// the parameters themselves are provided by the (singleton) ParameterFactory, only their values are kept here
+// safe to be used concurrently, e.g. at application scope or by background threads of server push
 public class ViewStateParameterFactory {
+	private static final ViewStateParameterIndex NO_PARAMETERS = new ViewStateParameterIndex(Collections.emptySet());
 	@Getter(AccessLevel.PACKAGE)
 	@VisibleForTesting
 	private final ParameterFactory parameterFactory;
-	private final Map<String, Collection<ViewStateParameter>> actualParameters = LazyMap.lazyMap(new HashMap<>(), new Transformer<String, Collection<ViewStateParameter>>() {
-		@Override
-		public Collection<ViewStateParameter> transform(String input) {
-			return parameterFactory.createViewStateParameters(input);
-		}
-	});
+	private final Map<String, ViewStateParameterIndex> actualParameters = new ConcurrentHashMap<>();
+	private final Map<ViewStateParameter, ViewStateParameterValue> actualValues = new ConcurrentHashMap<>();
 
 	public ViewStateParameterFactory(@NonNull ParameterFactory parameterFactory) {
 		this.parameterFactory = parameterFactory;
 	}
 
 	public Collection<ViewStateParameter> getViewStateParameters(String viewName) {
-		return actualParameters.get(viewName);
+		return getIndex(viewName).getParameters();
+	}
+
+	/**
+	 * Gets the parameter of a view that is responsible for values of the given class.
+	 *
+	 * @param viewName   the name of the view
+	 * @param valueClass the class of a value or of the elements of a collection value
+	 * @return the parameter or null when the view has no parameter for the given class
+	 */
+	ViewStateParameter getViewStateParameter(String viewName, @NonNull Type valueClass) {
+		return getIndex(viewName).getByValueClass(valueClass);
+	}
+
+	private ViewStateParameterIndex getIndex(String viewName) {
+		if (viewName == null) {
+			return NO_PARAMETERS;
+		}
+		return actualParameters.computeIfAbsent(viewName, parameterFactory::getViewStateParameterIndex);
+	}
+
+	/**
+	 * Gets the value this factory's scope holds for the given parameter.
+	 *
+	 * @param <T>       the type parameter
+	 * @param parameter one of the parameters returned by getViewStateParameters
+	 * @return the value holder of the parameter - created on first access
+	 */
+	public <T> ViewStateParameterValue<T> getParameterValue(@NonNull ViewStateParameter<T> parameter) {
+		return actualValues.computeIfAbsent(parameter, p -> new ViewStateParameterValue<>());
 	}
 
 	public interface ViewDescriptor {
@@ -78,6 +106,12 @@ public class ViewStateParameterFactory {
 		}
 	}
 
+	static class ParameterDependencyException extends ConfigurationException {
+		ParameterDependencyException(String viewName, String parameterName, String problem) {
+			super("You declared a " + ViewParameter.class.getSimpleName() + " in '" + viewName + "' for '" + parameterName + "' " + problem);
+		}
+	}
+
 	@RequiredArgsConstructor
 	@Getter
 	static class ViewParameterDefinition {
@@ -0,0 +1,111 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ViewStateParameterIndex finds the parameter of one view that is responsible for a value type without asking every
+ * converter of the view again. The types the converters are configured for and the element types of collection
+ * converters are resolved when the index is built, any other type on its first lookup - including the types no
+ * parameter of the view is responsible for.
+ * The parameters are kept in the order their values are set in: the parameters a parameter depends on come first,
+ * apart from that they are ordered by their names.
+ * An index is shared by all UIs and safe to be used concurrently.
+ */
+public final class ViewStateParameterIndex {
+	@Getter
+	private final Collection<ViewStateParameter> parameters;
+	private final Map<Type, Optional<ViewStateParameter>> byKnownType;
+	private final Map<Type, Optional<ViewStateParameter>> byOtherType = new ConcurrentHashMap<>();
+
+	ViewStateParameterIndex(@NonNull Collection<ViewStateParameter> parameters) {
+		this.parameters = Collections.unmodifiableList(orderByDependencies(parameters));
+		Map<Type, Optional<ViewStateParameter>> known = new HashMap<>();
+		for (ViewStateParameter parameter : parameters) {
+			Converter converter = parameter.getConverter();
+			known.computeIfAbsent(converter.getInternalClass(), this::resolve);
+			if (converter instanceof CollectionValueConverter) {
+				known.computeIfAbsent(((CollectionValueConverter) converter).getSingleValueClass(), this::resolve);
+			}
+		}
+		byKnownType = Collections.unmodifiableMap(known);
+	}
+
+	/**
+	 * Gets the parameter responsible for the given value class.
+	 *
+	 * @param valueClass the class of a value or of the elements of a collection value
+	 * @return the parameter or null when no parameter of the view converts the given class
+	 */
+	public ViewStateParameter getByValueClass(@NonNull Type valueClass) {
+		Optional<ViewStateParameter> result = byKnownType.get(valueClass);
+		if (result == null) {
+			result = byOtherType.computeIfAbsent(valueClass, this::resolve);
+		}
+		return result.orElse(null);
+	}
+
+	private static List<ViewStateParameter> orderByDependencies(Collection<ViewStateParameter> parameters) {
+		List<ViewStateParameter> byName = new ArrayList<>(parameters);
+		byName.sort(Comparator.comparing(ViewStateParameter::getParameterName));
+		Map<String, ViewStateParameter> named = new HashMap<>();
+		byName.forEach(parameter -> named.putIfAbsent(parameter.getParameterName(), parameter));
+		List<ViewStateParameter> result = new ArrayList<>(byName.size());
+		Set<ViewStateParameter> ordered = new HashSet<>();
+		for (ViewStateParameter parameter : byName) {
+			addWithDependencies(parameter, named, new LinkedHashSet<>(), ordered, result);
+		}
+		return result;
+	}
+
+	private static void addWithDependencies(ViewStateParameter parameter, Map<String, ViewStateParameter> named, Set<String> path, Set<ViewStateParameter> ordered, List<ViewStateParameter> result) {
+		if (ordered.contains(parameter)) {
+			return;
+		}
+		String name = parameter.getParameterName();
+		if (!path.add(name)) {
+			throw new ViewStateParameterFactory.ParameterDependencyException(parameter.getViewName(), name, "with a cyclic dependency: " + String.join(" -> ", path) + " -> " + name);
+		}
+		for (String dependency : parameter.getViewParameter().dependsOn()) {
+			ViewStateParameter required = named.get(dependency);
+			if (required == null) {
+				throw new ViewStateParameterFactory.ParameterDependencyException(parameter.getViewName(), name, "depending on the unknown parameter '" + dependency + "'");
+			}
+			addWithDependencies(required, named, path, ordered, result);
+		}
+		path.remove(name);
+		ordered.add(parameter);
+		result.add(parameter);
+	}
+
+	private Optional<ViewStateParameter> resolve(Type valueClass) {
+		for (ViewStateParameter parameter : parameters) {
+			if (parameter.convertsClass(valueClass)) {
+				return Optional.of(parameter);
+			}
+			Converter converter = parameter.getConverter();
+			if (converter instanceof CollectionValueConverter) {
+				CollectionValueConverter collectionValueConverter = (CollectionValueConverter) converter;
+				if (valueClass.equals(collectionValueConverter.getSingleValueClass())) {
+					return Optional.of(parameter);
+				}
+			}
+		}
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,127 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * The ViewStateParameterValue holds what one UI knows about one ViewStateParameter: its current value and the value
+ * parsed from the url that is about to be fired. Everything else about the parameter is shared between all UIs.
+ * It also remembers the string an immutable value (a string, a number, an enum value, ...) was last converted to, so
+ * that unchanged values are not converted again. The same goes for a collection of immutable elements: it is the same
+ * unchanged collection as long as it is the same instance and holds the same elements in the same order, which is
+ * checked against a copy of the elements taken when it was converted - much cheaper than converting every element
+ * again. Arrays, collections of mutable elements and other mutable values are converted every time - they may have
+ * been modified in place without anything telling. Arrays are compared by their content.
+ * A value is safe to be used by several threads: the values are guarded by the instance, the remembered string is
+ * replaced as a whole.
+ *
+ * @param <T> the type parameter
+ */
+@ToString
+public final class ViewStateParameterValue<T> {
+	private boolean temp;
+	private T tempValue;
+	private T value;
+	private volatile StringForm stringForm;
+
+	ViewStateParameterValue() {
+	}
+
+	synchronized T getValue() {
+		if (temp) {
+			return tempValue;
+		}
+		return value;
+	}
+
+	synchronized boolean setValue(T newValue) {
+		boolean changed = !Objects.deepEquals(value, newValue);
+		value = newValue;
+		return changed;
+	}
+
+	/*
+	the string of an equal immutable value or of the unchanged collection - a mutable value cannot be told unchanged by
+	its identity or hash code alone
+	 */
+	String getStringValue(Object source) {
+		StringForm current = stringForm;
+		if (current != null && current.isOf(source)) {
+			return current.stringValue;
+		}
+		return null;
+	}
+
+	void setStringValue(Object source, String stringValue) {
+		if (stringValue == null || source == null) {
+			return;
+		}
+		if (ImmutableValues.isImmutable(source)) {
+			stringForm = new StringForm(source, null, stringValue);
+		} else if (source instanceof Collection) {
+			Object[] elements = ((Collection<?>) source).toArray();
+			for (Object element : elements) {
+				if (!ImmutableValues.isImmutable(element)) {
+					return;
+				}
+			}
+			stringForm = new StringForm(source, elements, stringValue);
+		}
+	}
+
+	synchronized boolean isTemp() {
+		return temp;
+	}
+
+	synchronized T getTempValue() {
+		return tempValue;
+	}
+
+	synchronized void setTempValue(T value) {
+		tempValue = value;
+		temp = true;
+	}
+
+	synchronized void flushTempValue() {
+		tempValue = null;
+		temp = false;
+	}
+
+	@RequiredArgsConstructor
+	@ToString
+	private static final class StringForm {
+		private final Object source;
+		// the elements of a collection when it was converted, null for an immutable value
+		private final Object[] elements;
+		private final String stringValue;
+
+		private boolean isOf(Object value) {
+			if (elements == null) {
+				return source.equals(value);
+			}
+			return source == value && hasElements((Collection<?>) value);
+		}
+
+		private boolean hasElements(Collection<?> collection) {
+			if (collection.size() != elements.length) {
+				return false;
+			}
+			try {
+				Iterator<?> iterator = collection.iterator();
+				for (Object element : elements) {
+					if (!iterator.hasNext() || !Objects.equals(element, iterator.next())) {
+						return false;
+					}
+				}
+				return !iterator.hasNext();
+			} catch (ConcurrentModificationException e) {
+				return false;
+			}
+		}
+	}
+}
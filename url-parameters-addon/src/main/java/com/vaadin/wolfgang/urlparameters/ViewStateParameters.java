@@ -5,16 +5,22 @@ import com.vaadin.navigator.Navigator;
 import com.vaadin.navigator.View;
 import com.vaadin.navigator.ViewChangeListener;
 import com.vaadin.server.Page;
+import com.vaadin.ui.UI;
 import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The type ViewStateParameters is designed for managing parameters that specify details of what to display inside
@@ -23,12 +29,53 @@ import java.util.*;
  * annotated views to produce a list of <code>ViewStateParameter</code> elements.
  * It listens to Navigator's events to identify and apply parameters.
  * To change the value of a parameter you inject this bean and call <code>putElement</code>
+ * Parameters converted by an <code>AsyncConverter</code> are converted in the background when a conversion executor
+ * is set: the view is entered without waiting for them, their values are set via UI.access once all of them are
+ * available. Configure server push to show them without another request of the client.
  * @see  <code>ViewParameter</code> or <code>ViewParameters</code>for more details of how to configure ViewParameters
  */
 @Slf4j
 public class ViewStateParameters {
 	private final ViewStateParameterFactory viewStateParameterFactory;
 	private final Navigator navigator;
+	private final FragmentCodec fragmentCodec = new FragmentCodec();
+	/*
+	the parameters of the view last externalized and the fragment last built of them: only parameters whose values
+	changed are converted and put again, the fragment is only built again when one of them did
+	 */
+	private final FragmentCodec.Parameters externalized = new FragmentCodec.Parameters();
+	private String externalizedViewName;
+	private String fragment;
+	private String fragmentViewName;
+	private int batchDepth;
+	private boolean navigationPending;
+	// set while navigating to the state built of the current values, see navigateToCurrentState
+	private boolean navigatingToCurrentState;
+	/**
+	 * Which parameters are fired to the view when it is entered
+	 */
+	@Getter
+	@Setter
+	@NonNull
+	private FiringMode firingMode = FiringMode.ALL;
+	/**
+	 * The executor the conversions of AsyncConverters run on - null to convert them right away like any other
+	 */
+	@Getter
+	@Setter
+	private Executor conversionExecutor;
+	/**
+	 * The executor the parameters of a view are converted on all at once when it is entered - null to convert them one
+	 * after the other. The conversions do not wait for each other, not even for those of the parameters they depend
+	 * on: the navigation waits for the slowest one, the values are set in the order of the parameters afterwards. The
+	 * converters have to be safe to be used concurrently and must not rely on
+	 * UI.getCurrent() or VaadinSession.getCurrent(). See <code>ConversionExecutors</code>.
+	 */
+	@Getter
+	@Setter
+	private Executor parallelConversionExecutor;
+	// the conversions running in the background by their parameters, a conversion replaced by another one is dropped
+	private final Map<ViewStateParameter, PendingConversion> pendingConversions = new HashMap<>();
 	@Getter(AccessLevel.PROTECTED)
 	private String currentViewName = null;
 	@Getter(AccessLevel.PROTECTED)
@@ -57,10 +104,17 @@ public class ViewStateParameters {
 				/*
 				before the view is entered the parameters are parsed and assigned to the fully initialised view instance
 				 */
+				navigationPending = false;
+				boolean unchangedView = navigatingToCurrentState && event.getNewView() == currentView && Objects.equals(event.getViewName(), currentViewName);
+				navigatingToCurrentState = false;
 				currentViewName = event.getViewName();
 				currentView = event.getNewView();
-				Map<String, String> map = event.getParameterMap();
-				internalize(map);
+				FragmentCodec.Parameters parameters = fragmentCodec.parse(event.getParameters());
+				try {
+					internalize(parameters, unchangedView, firingMode);
+				} finally {
+					fragmentCodec.release(parameters);
+				}
 				return true;
 			}
 
@@ -79,24 +133,22 @@ public class ViewStateParameters {
 	}
 
 	private ViewStateParameter getParameterConfigByValueClass(@NonNull Type valueClass, String viewName) {
-		Collection<ViewStateParameter> configs = viewStateParameterFactory.getViewStateParameters(viewName);
-		for (ViewStateParameter parameterConfig : configs) {
-			if (parameterConfig.convertsClass(valueClass)) {
-				return parameterConfig;
-			}
-			Converter converter = parameterConfig.getConverter();
-			if (converter instanceof CollectionValueConverter) {
-				CollectionValueConverter collectionValueConverter = (CollectionValueConverter) converter;
-				if (collectionValueConverter.getSingleValueClass() == valueClass) {
-					return parameterConfig;
-				}
-			}
-		}
-		return null;
+		return viewStateParameterFactory.getViewStateParameter(viewName, valueClass);
 	}
 
 	public void navigateWithParameters(String viewName, Object... parameters) {
-		Map<String, String> stringParameters = new HashMap<>();
+		FragmentCodec.Parameters stringParameters = fragmentCodec.borrow();
+		String state;
+		try {
+			putStringValues(viewName, parameters, stringParameters);
+			state = fragmentCodec.format(viewName, stringParameters);
+		} finally {
+			fragmentCodec.release(stringParameters);
+		}
+		navigator.navigateTo(state);
+	}
+
+	private void putStringValues(String viewName, Object[] parameters, FragmentCodec.Parameters stringParameters) {
 		for (Object parameter : parameters) {
 			if (parameter != null) {
 				ViewStateParameter parameterConfig;
@@ -124,8 +176,6 @@ public class ViewStateParameters {
 				}
 			}
 		}
-		String state = buildState(viewName, stringParameters);
-		navigator.navigateTo(state);
 	}
 
 	/**
@@ -143,7 +193,7 @@ public class ViewStateParameters {
 	private <T> T getElement(@NonNull Class<T> elementClass, String viewName) {
 		ViewStateParameter<T> viewStateParameter = getParameterConfigByValueClass(elementClass, viewName);
 		if (viewStateParameter != null) {
-			return viewStateParameter.getValue(getCurrentView());
+			return viewStateParameter.getValue(getParameterValue(viewStateParameter), getCurrentView());
 		}
 		return null;
 	}
@@ -175,15 +225,20 @@ public class ViewStateParameters {
 			if (viewStateParameter != null) {
 				View currentView = getCurrentView();
 				if (element == null) {
-					String defaultValue = viewStateParameter.getDefaultValue();
-					if (StringUtils.isNotEmpty(defaultValue)) {
-						element = viewStateParameter.getConverter().getInternalObject(defaultValue);
+					if (StringUtils.isNotEmpty(viewStateParameter.getDefaultValue())) {
+						element = viewStateParameter.getDefaultInternalValue();
 					}
 				}
-				boolean valueChanged = viewStateParameter.setValue(element, currentView, initial);
+				// a value put wins over the one still being converted
+				pendingConversions.remove(viewStateParameter);
+				boolean valueChanged = viewStateParameter.setValue(getParameterValue(viewStateParameter), element, currentView, initial);
 
 				if (valueChanged) {
-					navigator.navigateTo(buildState(currentViewName, externalize()));
+					if (batchDepth > 0) {
+						navigationPending = true;
+					} else {
+						navigateToCurrentState(currentViewName);
+					}
 				}
 				found = true;
 			}
@@ -195,25 +250,68 @@ public class ViewStateParameters {
 		return result;
 	}
 
+	/**
+	 * Batch runs the given changes and navigates once at the end instead of once per changed element. Batches may be
+	 * nested, the outermost one navigates. A navigation started within the batch (e.g. via navigateWithParameters)
+	 * takes the place of the pending one.
+	 *
+	 * @param changes the code calling putElement or putElements
+	 */
+	public void batch(@NonNull Runnable changes) {
+		batchDepth++;
+		try {
+			changes.run();
+		} finally {
+			batchDepth--;
+			if (batchDepth == 0 && navigationPending) {
+				navigationPending = false;
+				String currentViewName = getCurrentViewName();
+				if (StringUtils.isNotEmpty(currentViewName)) {
+					navigateToCurrentState(currentViewName);
+				}
+			}
+		}
+	}
+
+	/*
+	the navigator calls beforeViewChange right away: when it navigates to the same view instance, the values of the
+	fragment are those of the view already and only the parameters whose strings differ get applied
+	 */
+	private void navigateToCurrentState(String viewName) {
+		boolean previous = navigatingToCurrentState;
+		navigatingToCurrentState = true;
+		try {
+			navigator.navigateTo(buildState(viewName));
+		} finally {
+			navigatingToCurrentState = previous;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private void updateUriFragment() {
 		Page currentPage = Page.getCurrent();
 		if (currentPage != null) {
 			String state = StringUtils.defaultIfEmpty(currentPage.getUriFragment(), "");
 			String viewName = getViewName(state);
-			String newUriFragment = buildState(viewName, externalize());
+			String newUriFragment = buildState(viewName);
 			currentPage.setUriFragment(newUriFragment, false);
 		}
 	}
 
-	private String buildState(String viewName, Map<String, String> parameters) {
-		String myInfo = parametersToString(parameters);
-
-		if (StringUtils.isNotEmpty(myInfo)) {
-			return viewName + '/' + myInfo;
-		} else {
-			return viewName;
+	private String buildState(String viewName) {
+		String currentViewName = getCurrentViewName();
+		boolean changed = false;
+		if (fragment == null || !Objects.equals(currentViewName, externalizedViewName)) {
+			externalized.clear();
+			externalizedViewName = currentViewName;
+			changed = true;
+		}
+		changed |= externalize(externalized);
+		if (changed || !Objects.equals(viewName, fragmentViewName)) {
+			fragment = fragmentCodec.format(viewName, externalized);
+			fragmentViewName = viewName;
 		}
+		return fragment;
 	}
 
 	/**
@@ -223,104 +321,274 @@ public class ViewStateParameters {
 	 * @return the view name
 	 */
 	public static String getViewName(@NonNull String location) {
-		String result = location;
-		int slashIndex = location.indexOf('/');
-		if (slashIndex > -1) {
-			result = location.substring(0, slashIndex);
-		}
-		return result;
+		return FragmentCodec.getViewName(location);
 	}
 
 	/**
-	 * Call before entering a view- will NOT update URL
+	 * Call before entering a view- will NOT update URL.
 	 *
-	 * @param parameters the map of parameters from the vaadin navigation event
+	 * @param parameters the parameters parsed from the fragment of the vaadin navigation event
+	 * @param onlyChanged true to leave out the parameters whose strings equal the strings of the current values
+	 * @param firing      which of the converted values are fired
 	 */
-	private void internalize(@NonNull Map<String, String> parameters) {
+	void internalize(@NonNull FragmentCodec.Parameters parameters, boolean onlyChanged, @NonNull FiringMode firing) {
 		Collection<ViewStateParameter> params = viewStateParameterFactory.getViewStateParameters(getCurrentViewName());
+		View currentView = getCurrentView();
+		Executor uiExecutor = conversionExecutor != null ? getUIExecutor() : null;
+		if (!onlyChanged) {
+			pendingConversions.clear();
+		}
 
-		Collection<ViewStateParameter> newValues = new HashSet<>();
-
-		Collection<Class> sharedParameterTypes = new HashSet<>();
+		// in the order of the parameters, dependencies first
+		List<ViewStateParameter> newValues = new ArrayList<>(params.size());
+		Set<String> changedNames = new LinkedHashSet<>();
+		Map<ViewStateParameter, PendingConversion> started = new LinkedHashMap<>();
+		Map<ViewStateParameter, String> toConvert = new LinkedHashMap<>();
 		for (ViewStateParameter viewStateParameter : params) {
 			String name = viewStateParameter.getParameterName();
+			ViewStateParameterValue parameterValue = getParameterValue(viewStateParameter);
 
+			String value = parameters.get(name);
+			if (onlyChanged && StringUtils.defaultString(value).equals(getStringValue(viewStateParameter, parameterValue, currentView))) {
+				continue;
+			}
+			pendingConversions.remove(viewStateParameter);
+			if (value != null && uiExecutor != null && viewStateParameter.getConverter() instanceof AsyncConverter) {
+				started.put(viewStateParameter, new PendingConversion(value, convertAsync((AsyncConverter<?>) viewStateParameter.getConverter(), value)));
+				continue;
+			}
+			toConvert.put(viewStateParameter, value);
+		}
+		Map<ViewStateParameter, Object> converted = convertAll(toConvert);
+		for (Map.Entry<ViewStateParameter, String> entry : toConvert.entrySet()) {
+			ViewStateParameter viewStateParameter = entry.getKey();
+			Object internalValue = converted.get(viewStateParameter);
+			if (dependsOnAny(viewStateParameter, started.keySet())) {
+				// set together with the pending values it depends on
+				started.put(viewStateParameter, new PendingConversion(entry.getValue(), CompletableFuture.completedFuture(internalValue)));
+				continue;
+			}
+			addNewValue(viewStateParameter, internalValue, currentView, firing, newValues, changedNames);
+		}
+		if (!started.isEmpty()) {
+			pendingConversions.putAll(started);
+			if (currentView instanceof ParametersChangedListener) {
+				Set<String> pendingNames = new LinkedHashSet<>();
+				started.keySet().forEach(viewStateParameter -> pendingNames.add(viewStateParameter.getParameterName()));
+				((ParametersChangedListener) currentView).onParametersPending(Collections.unmodifiableSet(pendingNames));
+			}
+			CompletableFuture<?>[] conversions = started.values().stream().map(PendingConversion::getConversion).toArray(CompletableFuture[]::new);
+			CompletableFuture.allOf(conversions).whenComplete((result, e) -> uiExecutor.execute(() -> applyConversions(started, currentView, firing)));
+		}
+		fireNewValues(newValues, changedNames, currentView);
+	}
 
-			if (parameters.containsKey(name)) {
-				String value = parameters.get(name);
-				try {
-					Object internalValue = viewStateParameter.getConverter().getInternalObject(value);
-					viewStateParameter.setTempValue(internalValue, getCurrentView());
-				} catch (RuntimeException e) {
-					Object internalValue = getDefaultValue(viewStateParameter);
-					viewStateParameter.setTempValue(internalValue, getCurrentView());
-				}
-				newValues.add(viewStateParameter);
+	/*
+	converts the values one after the other or - with a parallel conversion executor - all at once. A conversion does
+	not need the values of the parameters it depends on, only setting them is ordered. Defaults are converted here,
+	the conversions of the executor wait for the slowest.
+	 */
+	private Map<ViewStateParameter, Object> convertAll(Map<ViewStateParameter, String> values) {
+		Map<ViewStateParameter, Object> result = new HashMap<>();
+		Executor executor = parallelConversionExecutor;
+		if (executor == null || values.values().stream().filter(Objects::nonNull).count() < 2) {
+			values.forEach((viewStateParameter, value) -> result.put(viewStateParameter, convert(viewStateParameter, value)));
+			return result;
+		}
+		Map<ViewStateParameter, CompletableFuture<? extends ConversionResult<?>>> conversions = new HashMap<>();
+		values.forEach((viewStateParameter, value) -> {
+			if (value != null) {
+				Converter<?> converter = viewStateParameter.getConverter();
+				conversions.put(viewStateParameter, CompletableFuture.supplyAsync(() -> converter.tryGetInternalObject(value), executor));
+			}
+		});
+		values.forEach((viewStateParameter, value) -> {
+			CompletableFuture<? extends ConversionResult<?>> conversion = conversions.get(viewStateParameter);
+			Object internalValue;
+			try {
+				internalValue = conversion != null ? fromResult(viewStateParameter, conversion.join()) : convert(viewStateParameter, value);
+			} catch (RuntimeException e) {
+				// the executor rejected the conversion
+				log.debug("Parallel conversion of {} failed, converting it right away", viewStateParameter.getParameterName(), e);
+				internalValue = convert(viewStateParameter, value);
+			}
+			result.put(viewStateParameter, internalValue);
+		});
+		return result;
+	}
+
+	private Object convert(ViewStateParameter viewStateParameter, String value) {
+		if (value == null) {
+			return viewStateParameter.getDefaultInternalValue();
+		}
+		return fromResult(viewStateParameter, viewStateParameter.getConverter().tryGetInternalObject(value));
+	}
 
-			} else {
-				Object internalValue = getDefaultValue(viewStateParameter);
-				viewStateParameter.setTempValue(internalValue, getCurrentView());
-				newValues.add(viewStateParameter);
+	private static Object fromResult(ViewStateParameter viewStateParameter, ConversionResult<?> result) {
+		return result.isSuccess() ? result.getValue() : viewStateParameter.getDefaultInternalValue();
+	}
+
+	/*
+	runs with the session locked, after all conversions started by one navigation completed - the results of
+	conversions that have been replaced or dropped meanwhile are ignored
+	 */
+	private void applyConversions(Map<ViewStateParameter, PendingConversion> started, View view, FiringMode firing) {
+		if (view != getCurrentView()) {
+			return;
+		}
+		List<ViewStateParameter> newValues = new ArrayList<>(started.size());
+		Set<String> changedNames = new LinkedHashSet<>();
+		for (Map.Entry<ViewStateParameter, PendingConversion> entry : started.entrySet()) {
+			ViewStateParameter viewStateParameter = entry.getKey();
+			if (pendingConversions.get(viewStateParameter) != entry.getValue()) {
+				continue;
+			}
+			pendingConversions.remove(viewStateParameter);
+			Object internalValue;
+			try {
+				internalValue = entry.getValue().getConversion().join();
+			} catch (RuntimeException e) {
+				log.debug("Conversion of {} failed, using its default value", viewStateParameter.getParameterName(), e);
+				internalValue = viewStateParameter.getDefaultInternalValue();
 			}
+			addNewValue(viewStateParameter, internalValue, view, firing, newValues, changedNames);
 		}
+		fireNewValues(newValues, changedNames, view);
+		// the string of the value may differ from the one it was converted of
+		updateUriFragment();
+	}
+
+	private void addNewValue(ViewStateParameter viewStateParameter, Object internalValue, View view, FiringMode firing, List<ViewStateParameter> newValues, Set<String> changedNames) {
+		ViewStateParameterValue parameterValue = getParameterValue(viewStateParameter);
+		if (!Objects.deepEquals(internalValue, viewStateParameter.getValue(parameterValue, view))) {
+			changedNames.add(viewStateParameter.getParameterName());
+		} else if (firing == FiringMode.CHANGED) {
+			return;
+		}
+		viewStateParameter.setTempValue(parameterValue, internalValue, view);
+		newValues.add(viewStateParameter);
+	}
+
+	private void fireNewValues(List<ViewStateParameter> newValues, Set<String> changedNames, View view) {
 		try {
-			View currentView = getCurrentView();
-			newValues.forEach(viewStateParameter -> viewStateParameter.fireTempValue(currentView));
+			newValues.forEach(viewStateParameter -> viewStateParameter.fireTempValue(getParameterValue(viewStateParameter), view));
 		} finally {
-			newValues.forEach(viewStateParameter -> viewStateParameter.flushTempValue());
+			newValues.forEach(viewStateParameter -> viewStateParameter.flushTempValue(getParameterValue(viewStateParameter)));
+		}
+		if (!changedNames.isEmpty() && view instanceof ParametersChangedListener) {
+			((ParametersChangedListener) view).onParametersChanged(Collections.unmodifiableSet(changedNames));
+		}
+	}
+
+	private CompletableFuture<?> convertAsync(AsyncConverter<?> converter, String value) {
+		try {
+			return converter.getInternalObjectAsync(value, conversionExecutor);
+		} catch (RuntimeException e) {
+			CompletableFuture<?> result = new CompletableFuture<>();
+			result.completeExceptionally(e);
+			return result;
+		}
+	}
+
+	private static boolean dependsOnAny(ViewStateParameter viewStateParameter, Set<ViewStateParameter> parameters) {
+		for (ViewStateParameter parameter : parameters) {
+			if (ArrayUtils.contains(viewStateParameter.getViewParameter().dependsOn(), parameter.getParameterName())) {
+				return true;
+			}
 		}
+		return false;
 	}
 
-	private Object getDefaultValue(@NonNull ViewStateParameter viewStateParameter) {
-		String value = viewStateParameter.getDefaultValue();
-		Converter converter = viewStateParameter.getConverter();
-		if (StringUtils.isEmpty(value)) {
-			return converter.getInternalObject("");
-		} else {
-			return converter.getInternalObject(value);
+	/*
+	the string a pending conversion is converted of stands for the value until it is there
+	 */
+	private String getStringValue(ViewStateParameter viewStateParameter, ViewStateParameterValue parameterValue, View view) {
+		PendingConversion pendingConversion = pendingConversions.get(viewStateParameter);
+		if (pendingConversion != null) {
+			return StringUtils.defaultString(pendingConversion.getStringValue());
 		}
+		return viewStateParameter.getStringValue(parameterValue, view);
+	}
+
+	/**
+	 * Gets the executor the results of background conversions are handed to: UI.access of the UI of the current
+	 * navigation.
+	 *
+	 * @return the executor or null if there is no UI - the conversions are made right away then
+	 */
+	protected Executor getUIExecutor() {
+		UI ui = UI.getCurrent();
+		return ui != null ? ui::access : null;
+	}
+
+	private <T> ViewStateParameterValue<T> getParameterValue(@NonNull ViewStateParameter<T> viewStateParameter) {
+		return viewStateParameterFactory.getParameterValue(viewStateParameter);
 	}
 
-	private Map<String, String> externalize() {
-		Map<String, String> result = new HashMap<>();
+	/**
+	 * Puts the string values of the parameters of the current view, removing those without a value.
+	 *
+	 * @param result the parameters to be updated
+	 * @return true if any parameter changed
+	 */
+	boolean externalize(@NonNull FragmentCodec.Parameters result) {
+		boolean changed = false;
 		Collection<ViewStateParameter> params = viewStateParameterFactory.getViewStateParameters(getCurrentViewName());
 		if (params != null) {
 			for (ViewStateParameter viewStateParameter : params) {
 				String name = viewStateParameter.getParameterName();
-				String value = viewStateParameter.getStringValue(getCurrentView());
+				String value = getStringValue(viewStateParameter, getParameterValue(viewStateParameter), getCurrentView());
 				if (StringUtils.isNotEmpty(value)) {
-					result.put(name, value);
+					changed |= result.put(name, value);
+				} else {
+					changed |= result.remove(name);
 				}
 			}
 		}
-		return result;
+		return changed;
 	}
 
 	public void refresh() {
 		// brute force internal references to disappear
-		Map<String, String> parameterString = externalize();
-		internalize(parameterString);
-	}
-
-	private static String parametersToString(@NonNull Map<String, String> parameters) {
-		boolean first = true;
-		StringBuilder buf = new StringBuilder();
-		for (Map.Entry<String, String> entry : parameters.entrySet()) {
-			if (first) {
-				first = false;
-			} else {
-				buf.append('&');
-			}
-			buf.append(entry.getKey());
-			buf.append('=');
-			buf.append(entry.getValue());
+		FragmentCodec.Parameters parameters = fragmentCodec.borrow();
+		try {
+			externalize(parameters);
+			// every parameter is fired, the point is to replace the instances even if they are equal
+			internalize(parameters, false, FiringMode.ALL);
+		} finally {
+			fragmentCodec.release(parameters);
 		}
-		return buf.toString();
 	}
 
+	/*
+	built apart from the fragment remembered for the navigations and with a codec of its own, so that a log statement or
+	a debugger cannot change what the next navigation builds on
+	 */
 	@Override
 	public String toString() {
-		Map<String, String> parameters = externalize();
-		return parametersToString(parameters);
+		FragmentCodec.Parameters parameters = new FragmentCodec.Parameters();
+		externalize(parameters);
+		return new FragmentCodec().format(null, parameters);
+	}
+
+	@RequiredArgsConstructor
+	@Getter
+	private static final class PendingConversion {
+		private final String stringValue;
+		private final CompletableFuture<?> conversion;
+	}
+
+	/**
+	 * The FiringMode tells which parameters get fired to the view - their setters called - when it is entered
+	 */
+	public enum FiringMode {
+		/**
+		 * every parameter, whether its value changed or not
+		 */
+		ALL,
+		/**
+		 * only the parameters whose converted values differ from the current ones (compared by equals)
+		 */
+		CHANGED
 	}
 }
@@ -0,0 +1,54 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.google.inject.internal.MoreTypes;
+import lombok.NonNull;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * AssignableTypes computes the parameterized types a value of a generic class can be assigned to: for
+ * <code>ArrayList&lt;X&gt;</code> these are <code>ArrayList&lt;X&gt;</code>, <code>AbstractList&lt;X&gt;</code>,
+ * <code>List&lt;X&gt;</code>, <code>Collection&lt;X&gt;</code>, <code>Iterable&lt;X&gt;</code> and so on. Only the
+ * superclasses and interfaces taking the same number of type arguments are considered - the arguments are passed on
+ * unchanged.
+ */
+public final class AssignableTypes {
+	private AssignableTypes() {
+	}
+
+	/**
+	 * Gets the assignable types
+	 *
+	 * @param rawClass  the generic class
+	 * @param arguments the type arguments
+	 * @return an unmodifiable set of parameterized types, including the one of the given class itself
+	 */
+	public static Set<Type> of(@NonNull Class<?> rawClass, @NonNull Type... arguments) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		classes.add(rawClass);
+		collectSuperClasses(rawClass, classes);
+		Set<Type> result = new HashSet<>();
+		for (Class<?> assignableClass : classes) {
+			if (assignableClass.getTypeParameters().length == arguments.length && assignableClass.getEnclosingClass() == null) {
+				result.add(new MoreTypes.ParameterizedTypeImpl(null, assignableClass, arguments));
+			}
+		}
+		return Collections.unmodifiableSet(result);
+	}
+
+	private static void collectSuperClasses(Class<?> rawClass, Set<Class<?>> result) {
+		Class<?> superclass = rawClass.getSuperclass();
+		if (superclass != null && superclass != Object.class && result.add(superclass)) {
+			collectSuperClasses(superclass, result);
+		}
+		for (Class<?> interfaceClass : rawClass.getInterfaces()) {
+			if (result.add(interfaceClass)) {
+				collectSuperClasses(interfaceClass, result);
+			}
+		}
+	}
+}
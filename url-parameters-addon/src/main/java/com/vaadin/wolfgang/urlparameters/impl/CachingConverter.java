@@ -0,0 +1,436 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.ui.UI;
+import com.vaadin.wolfgang.urlparameters.BulkConverter;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The CachingConverter keeps the results of another converter in both directions: the instances by their string
+ * representations and the string representations by their instances (compared by equals). Each direction holds at most
+ * maximumSize entries, dropping the least recently used one first; entries may expire after a time to live and the
+ * instances may be held weakly, so that a cache does not keep entities alive that nothing else uses anymore.
+ * Strings that do not represent an instance (null results and failures) are not cached.
+ * A caching converter is safe to be used concurrently. Its scope tells which UIs share a cache: with
+ * {@link Scope#APPLICATION} all UIs use the same one, with {@link Scope#UI} each UI gets its own cache (found by
+ * UI.getCurrent()), so that the instances loaded by one UI, e.g. entities of a session, are never handed to another.
+ * Conversions without a current UI share a cache of their own then. The limits and the statistics apply per cache and
+ * to all caches together respectively.
+ *
+ * @param <T> the type parameter
+ */
+public class CachingConverter<T> implements BulkConverter<T> {
+	@Getter
+	private final Converter<T> delegate;
+	@Getter
+	private final int maximumSize;
+	private final long timeToLiveNanos;
+	@Getter
+	private final boolean weakValues;
+	@Getter
+	private final Scope scope;
+	private final LongSupplier ticker;
+	private final Supplier<?> currentUI;
+	private final Caches applicationCaches = new Caches();
+	// the caches of the UIs, dropped with their UIs
+	private final Map<Object, Caches> uiCaches = new WeakHashMap<>();
+	private final LongAdder internalObjectHits = new LongAdder();
+	private final LongAdder internalObjectMisses = new LongAdder();
+	private final LongAdder stringHits = new LongAdder();
+	private final LongAdder stringMisses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public CachingConverter(@NonNull Converter<T> delegate, int maximumSize) {
+		this(delegate, maximumSize, 0, TimeUnit.MILLISECONDS, false);
+	}
+
+	public CachingConverter(@NonNull Converter<T> delegate, int maximumSize, long timeToLive, @NonNull TimeUnit unit, boolean weakValues) {
+		this(delegate, maximumSize, timeToLive, unit, weakValues, Scope.APPLICATION);
+	}
+
+	/**
+	 * Instantiates a new caching converter
+	 *
+	 * @param delegate    the converter whose results are cached
+	 * @param maximumSize the maximum number of entries per direction
+	 * @param timeToLive  the time an entry is used after it was cached, 0 to keep entries until they are evicted
+	 * @param unit        the unit of timeToLive
+	 * @param weakValues  true to hold the instances weakly
+	 * @param scope       whether all UIs share a cache or each UI has its own
+	 */
+	public CachingConverter(@NonNull Converter<T> delegate, int maximumSize, long timeToLive, @NonNull TimeUnit unit, boolean weakValues, @NonNull Scope scope) {
+		this(delegate, maximumSize, timeToLive, unit, weakValues, scope, System::nanoTime, UI::getCurrent);
+	}
+
+	CachingConverter(@NonNull Converter<T> delegate, int maximumSize, long timeToLive, @NonNull TimeUnit unit, boolean weakValues, @NonNull LongSupplier ticker) {
+		this(delegate, maximumSize, timeToLive, unit, weakValues, Scope.APPLICATION, ticker, () -> null);
+	}
+
+	CachingConverter(@NonNull Converter<T> delegate, int maximumSize, long timeToLive, @NonNull TimeUnit unit, boolean weakValues,
+	                 @NonNull Scope scope, @NonNull LongSupplier ticker, @NonNull Supplier<?> currentUI) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("timeToLive must not be negative: " + timeToLive);
+		}
+		this.delegate = delegate;
+		this.maximumSize = maximumSize;
+		this.timeToLiveNanos = unit.toNanos(timeToLive);
+		this.weakValues = weakValues;
+		this.scope = scope;
+		this.ticker = ticker;
+		this.currentUI = currentUI;
+	}
+
+	@Override
+	public boolean converts(Type valueClass) {
+		return delegate.converts(valueClass);
+	}
+
+	@Override
+	public Type getInternalClass() {
+		return delegate.getInternalClass();
+	}
+
+	@Override
+	public T getInternalObject(String stringRepresentation) {
+		T result = getCached(stringRepresentation);
+		if (result == null) {
+			result = delegate.getInternalObject(stringRepresentation);
+			putCached(stringRepresentation, result);
+		}
+		return result;
+	}
+
+	@Override
+	public ConversionResult<T> tryGetInternalObject(String stringRepresentation) {
+		T cached = getCached(stringRepresentation);
+		if (cached != null) {
+			return ConversionResult.success(cached);
+		}
+		ConversionResult<T> result = delegate.tryGetInternalObject(stringRepresentation);
+		if (result.isSuccess()) {
+			putCached(stringRepresentation, result.getValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the cached instances and converts the others - all at once if the delegate is a BulkConverter itself.
+	 */
+	@Override
+	public Map<String, T> getInternalObjects(@NonNull Collection<String> stringRepresentations) {
+		Map<String, T> result = new HashMap<>();
+		Set<String> missing = new LinkedHashSet<>();
+		for (String stringRepresentation : stringRepresentations) {
+			if (!result.containsKey(stringRepresentation) && !missing.contains(stringRepresentation)) {
+				T cached = getCached(stringRepresentation);
+				if (cached != null) {
+					result.put(stringRepresentation, cached);
+				} else {
+					missing.add(stringRepresentation);
+				}
+			}
+		}
+		if (missing.isEmpty()) {
+			return result;
+		}
+		if (delegate instanceof BulkConverter) {
+			Map<String, T> converted = ((BulkConverter<T>) delegate).getInternalObjects(missing);
+			for (String stringRepresentation : missing) {
+				T internalObject = converted.get(stringRepresentation);
+				putCached(stringRepresentation, internalObject);
+				result.put(stringRepresentation, internalObject);
+			}
+		} else {
+			for (String stringRepresentation : missing) {
+				T internalObject = delegate.getInternalObject(stringRepresentation);
+				putCached(stringRepresentation, internalObject);
+				result.put(stringRepresentation, internalObject);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return delegate.isNumeric();
+	}
+
+	@Override
+	public String getStringRepresentation(T o) {
+		if (o == null) {
+			return delegate.getStringRepresentation(null);
+		}
+		Caches caches = getCaches();
+		Object key = weakValues ? new WeakKey(o, null) : o;
+		String result;
+		synchronized (caches.byInternalObject) {
+			caches.expungeCollectedKeys();
+			result = getValue(caches.byInternalObject, key);
+		}
+		if (result != null) {
+			stringHits.increment();
+			return result;
+		}
+		stringMisses.increment();
+		result = delegate.getStringRepresentation(o);
+		if (result != null) {
+			Entry<String> entry = new Entry<>(result, false, expiry());
+			synchronized (caches.byInternalObject) {
+				caches.byInternalObject.put(weakValues ? new WeakKey(o, caches.collectedKeys) : o, entry);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Drops all cached entries of all UIs, e.g. after the underlying data changed. The statistics are kept.
+	 */
+	public void invalidateAll() {
+		for (Caches caches : getAllCaches()) {
+			caches.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of entries currently cached
+	 *
+	 * @return the entries of both directions and all UIs, including those expired or collected but not dropped yet
+	 */
+	public int size() {
+		int result = 0;
+		for (Caches caches : getAllCaches()) {
+			result += caches.size();
+		}
+		return result;
+	}
+
+	public Statistics getStatistics() {
+		return new Statistics(internalObjectHits.sum(), internalObjectMisses.sum(), stringHits.sum(), stringMisses.sum(), evictions.sum());
+	}
+
+	private T getCached(String stringRepresentation) {
+		Caches caches = getCaches();
+		T result;
+		synchronized (caches.byString) {
+			result = getValue(caches.byString, stringRepresentation);
+		}
+		if (result != null) {
+			internalObjectHits.increment();
+		} else {
+			internalObjectMisses.increment();
+		}
+		return result;
+	}
+
+	private void putCached(String stringRepresentation, T internalObject) {
+		if (internalObject != null) {
+			Caches caches = getCaches();
+			Entry<T> entry = new Entry<>(internalObject, weakValues, expiry());
+			synchronized (caches.byString) {
+				caches.byString.put(stringRepresentation, entry);
+			}
+		}
+	}
+
+	/*
+	call with the lock of the map held; expired and collected entries are dropped when they are met
+	 */
+	private <K, V> V getValue(Map<K, Entry<V>> map, K key) {
+		Entry<V> entry = map.get(key);
+		if (entry == null) {
+			return null;
+		}
+		V result = entry.get();
+		if (result == null || (entry.expires != 0 && ticker.getAsLong() - entry.expires > 0)) {
+			map.remove(key);
+			return null;
+		}
+		return result;
+	}
+
+	private long expiry() {
+		if (timeToLiveNanos == 0) {
+			return 0;
+		}
+		long result = ticker.getAsLong() + timeToLiveNanos;
+		// 0 means no expiry
+		return result != 0 ? result : 1;
+	}
+
+	private Caches getCaches() {
+		Object ui = scope == Scope.UI ? currentUI.get() : null;
+		if (ui == null) {
+			return applicationCaches;
+		}
+		synchronized (uiCaches) {
+			return uiCaches.computeIfAbsent(ui, key -> new Caches());
+		}
+	}
+
+	private Collection<Caches> getAllCaches() {
+		Collection<Caches> result = new ArrayList<>();
+		result.add(applicationCaches);
+		synchronized (uiCaches) {
+			result.addAll(uiCaches.values());
+		}
+		return result;
+	}
+
+	/**
+	 * The Scope of a caching converter tells which UIs share a cache
+	 */
+	public enum Scope {
+		/**
+		 * All UIs share one cache
+		 */
+		APPLICATION,
+		/**
+		 * Each UI has a cache of its own, dropped when the UI is garbage collected
+		 */
+		UI
+	}
+
+	/**
+	 * The Statistics is a snapshot of the counters of a caching converter
+	 */
+	@Value
+	public static class Statistics {
+		long internalObjectHits;
+		long internalObjectMisses;
+		long stringHits;
+		long stringMisses;
+		long evictions;
+
+		/**
+		 * Gets the share of lookups in both directions answered from the cache
+		 *
+		 * @return the hit rate between 0 and 1, 1 when there were no lookups
+		 */
+		public double getHitRate() {
+			long hits = internalObjectHits + stringHits;
+			long lookups = hits + internalObjectMisses + stringMisses;
+			return lookups == 0 ? 1 : (double) hits / lookups;
+		}
+	}
+
+	/*
+	the caches of both directions of one scope, each guarded by itself
+	 */
+	private final class Caches {
+		private final Map<String, Entry<T>> byString = new LruMap<>();
+		private final Map<Object, Entry<String>> byInternalObject = new LruMap<>();
+		private final ReferenceQueue<Object> collectedKeys = new ReferenceQueue<>();
+
+		private void clear() {
+			synchronized (byString) {
+				byString.clear();
+			}
+			synchronized (byInternalObject) {
+				byInternalObject.clear();
+				expungeCollectedKeys();
+			}
+		}
+
+		private int size() {
+			int result;
+			synchronized (byString) {
+				result = byString.size();
+			}
+			synchronized (byInternalObject) {
+				return result + byInternalObject.size();
+			}
+		}
+
+		/*
+		call with the lock of byInternalObject held
+		 */
+		private void expungeCollectedKeys() {
+			Reference<?> collected;
+			while ((collected = collectedKeys.poll()) != null) {
+				byInternalObject.remove(collected);
+			}
+		}
+	}
+
+	private final class LruMap<K, V> extends LinkedHashMap<K, V> {
+		private LruMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			if (size() > maximumSize) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private static final class Entry<V> {
+		private final Object value;
+		private final long expires;
+
+		private Entry(V value, boolean weak, long expires) {
+			this.value = weak ? new WeakReference<>(value) : value;
+			this.expires = expires;
+		}
+
+		private V get() {
+			return (V) (value instanceof WeakReference ? ((WeakReference) value).get() : value);
+		}
+	}
+
+	/*
+	a weakly held instance as a key: equal to another key of an equal instance, a collected key is equal to itself only
+	 */
+	private static final class WeakKey extends WeakReference<Object> {
+		private final int hashCode;
+
+		private WeakKey(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.hashCode = referent.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof WeakKey) || hashCode != o.hashCode()) {
+				return false;
+			}
+			Object referent = get();
+			return referent != null && Objects.equals(referent, ((WeakKey) o).get());
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
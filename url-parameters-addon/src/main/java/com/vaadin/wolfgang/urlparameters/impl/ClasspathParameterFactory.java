@@ -52,42 +52,80 @@ public class ClasspathParameterFactory extends AbstractParameterFactory {
 	}
 
 	public ClasspathParameterFactory(String packageHint, Class<? extends Annotation> nameAnnotationClass, String nameKey, Map<String, Converter> converters) {
-		registerConverters(converters);
+		this(converters);
 		Configuration conf = new ConfigurationBuilder().forPackages(packageHint).setExpandSuperTypes(false).addScanners(new MethodAnnotationsScanner());
 		Reflections reflections = new Reflections(conf);
-		Matcher parametersMatcher = new Matcher<ViewParameters>(ViewParameters.class);
-		reflections.getTypesAnnotatedWith(ViewParameters.class).forEach(aClass -> parametersMatcher.processMatch(aClass));
-
-		Matcher parameterMatcher = new Matcher<ViewParameter>(ViewParameter.class);
-		reflections.getTypesAnnotatedWith(ViewParameter.class).forEach(aClass -> parameterMatcher.processMatch(aClass));
-
-		reflections.getMethodsAnnotatedWith(ViewMethodParameter.class).forEach(method -> {
-			Class declaringClass = method.getDeclaringClass();
-			String declaringClassName = declaringClass.getName();
-			MethodDescriptor methodDescriptor = new MethodDescriptor(method);
-			viewMethodDescriptors.put(declaringClassName, methodDescriptor);
-			annotatedClasses.put(declaringClassName, declaringClass);
-		});
-
-		reflections.getTypesAnnotatedWith(nameAnnotationClass).forEach(classWithAnnotation -> {
-			Annotation anno = classWithAnnotation.getAnnotation(nameAnnotationClass);
-			try {
-				Method m = anno.getClass().getMethod(nameKey, new Class[]{});
-				String name = (String) m.invoke(anno, null);
-				viewNames.put(classWithAnnotation.getName(), name);
-			} catch (NoSuchMethodException e) {
-				throw new IllegalArgumentException("given annotation " + nameAnnotationClass + " must have a '" + nameKey + "' attribute");
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			} catch (InvocationTargetException e) {
-				throw new RuntimeException(e.getTargetException());
-			} catch (ClassCastException e) {
-				throw new RuntimeException("The given method '" + nameKey + "' must return a string value");
-			}
-		});
+		reflections.getTypesAnnotatedWith(ViewParameters.class).forEach(this::registerParameterClass);
+		reflections.getTypesAnnotatedWith(ViewParameter.class).forEach(this::registerParameterClass);
+		reflections.getMethodsAnnotatedWith(ViewMethodParameter.class).forEach(this::registerMethodParameter);
+		reflections.getTypesAnnotatedWith(nameAnnotationClass).forEach(classWithAnnotation -> registerViewName(classWithAnnotation, nameAnnotationClass, nameKey));
 		initialise();
 	}
 
+	/**
+	 * Constructor for subclasses that find the annotated classes themselves: register them via the register methods and
+	 * call initialise afterwards.
+	 *
+	 * @param converters the converters to be used
+	 */
+	protected ClasspathParameterFactory(Map<String, Converter> converters) {
+		registerConverters(converters);
+	}
+
+	/**
+	 * Registers a class annotated with ViewParameter or ViewParameters.
+	 *
+	 * @param annotatedClass the annotated class
+	 */
+	protected void registerParameterClass(Class<?> annotatedClass) {
+		if (annotatedClass.isAnnotationPresent(ViewParameters.class)) {
+			new Matcher<>(ViewParameters.class).processMatch(annotatedClass);
+		}
+		if (annotatedClass.isAnnotationPresent(ViewParameter.class)) {
+			new Matcher<>(ViewParameter.class).processMatch(annotatedClass);
+		}
+	}
+
+	/**
+	 * Registers a getter or setter annotated with ViewMethodParameter.
+	 *
+	 * @param method the annotated method
+	 */
+	protected void registerMethodParameter(Method method) {
+		Class declaringClass = method.getDeclaringClass();
+		String declaringClassName = declaringClass.getName();
+		MethodDescriptor methodDescriptor = new MethodDescriptor(method);
+		viewMethodDescriptors.put(declaringClassName, methodDescriptor);
+		annotatedClasses.put(declaringClassName, declaringClass);
+	}
+
+	/**
+	 * Registers the name of a view read from its name annotation.
+	 *
+	 * @param classWithAnnotation the view class
+	 * @param nameAnnotationClass the annotation that carries the name of a view
+	 * @param nameKey             the attribute of the annotation that holds the name
+	 */
+	protected void registerViewName(Class<?> classWithAnnotation, Class<? extends Annotation> nameAnnotationClass, String nameKey) {
+		Annotation anno = classWithAnnotation.getAnnotation(nameAnnotationClass);
+		if (anno == null) {
+			return;
+		}
+		try {
+			Method m = anno.getClass().getMethod(nameKey, new Class[]{});
+			String name = (String) m.invoke(anno, null);
+			viewNames.put(classWithAnnotation.getName(), name);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("given annotation " + nameAnnotationClass + " must have a '" + nameKey + "' attribute");
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		} catch (InvocationTargetException e) {
+			throw new RuntimeException(e.getTargetException());
+		} catch (ClassCastException e) {
+			throw new RuntimeException("The given method '" + nameKey + "' must return a string value");
+		}
+	}
+
 	@VisibleForTesting
 	public ClasspathParameterFactory(String name, Class beanClass) {
 		viewNames.put(beanClass.getName(), name);
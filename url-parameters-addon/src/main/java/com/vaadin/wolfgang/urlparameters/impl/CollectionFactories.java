@@ -0,0 +1,77 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import lombok.NonNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+/**
+ * CollectionFactories provides the functions the collection converters create their collections with. A function gets
+ * the number of elements about to be added, the collections of the common JDK classes are sized accordingly.
+ */
+public final class CollectionFactories {
+	private static final Map<Class<?>, IntFunction<?>> KNOWN = new HashMap<>();
+
+	static {
+		KNOWN.put(ArrayList.class, (IntFunction<ArrayList>) ArrayList::new);
+		KNOWN.put(HashSet.class, (IntFunction<HashSet>) size -> new HashSet<>(hashCapacity(size)));
+		KNOWN.put(LinkedHashSet.class, (IntFunction<LinkedHashSet>) size -> new LinkedHashSet<>(hashCapacity(size)));
+		KNOWN.put(TreeSet.class, (IntFunction<TreeSet>) size -> new TreeSet<>());
+		KNOWN.put(LinkedList.class, (IntFunction<LinkedList>) size -> new LinkedList<>());
+		KNOWN.put(ArrayDeque.class, (IntFunction<ArrayDeque>) ArrayDeque::new);
+		KNOWN.put(Vector.class, (IntFunction<Vector>) Vector::new);
+		KNOWN.put(CopyOnWriteArrayList.class, (IntFunction<CopyOnWriteArrayList>) size -> new CopyOnWriteArrayList<>());
+	}
+
+	private CollectionFactories() {
+	}
+
+	/**
+	 * Gets the factory for the given collection class: a sizing one for the common JDK classes, one calling the public
+	 * constructor without arguments for any other class.
+	 *
+	 * @param <C>             the type of the collection
+	 * @param collectionClass an instantiable collection class
+	 * @return the factory - failing on use if the class has no public constructor without arguments
+	 */
+	@SuppressWarnings("unchecked")
+	public static <C extends Collection> IntFunction<C> forClass(@NonNull Class<C> collectionClass) {
+		IntFunction<C> known = (IntFunction<C>) KNOWN.get(collectionClass);
+		if (known != null) {
+			return known;
+		}
+		Constructor<C> constructor;
+		try {
+			constructor = collectionClass.getConstructor();
+		} catch (NoSuchMethodException e) {
+			return size -> {
+				throw new IllegalStateException("Collection class " + collectionClass.getName() + " needs a public constructor without arguments or a collection factory");
+			};
+		}
+		return size -> {
+			try {
+				return constructor.newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				throw new RuntimeException(e);
+			} catch (InvocationTargetException e) {
+				throw new RuntimeException(e.getTargetException());
+			}
+		};
+	}
+
+	private static int hashCapacity(int size) {
+		return Math.max((int) (size / .75f) + 1, 16);
+	}
+}
@@ -1,136 +1,223 @@
 package com.vaadin.wolfgang.urlparameters.impl;
 
 import com.google.inject.internal.MoreTypes;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
 import com.vaadin.wolfgang.urlparameters.Converter;
 import lombok.Getter;
 import lombok.NonNull;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.StringWriter;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.IntFunction;
 
+/**
+ * The CollectionValueConverter converts collections of values with the converter of the single values. The elements
+ * are written in a canonical order (see Ordering), so that equal collections always result in the same string.
+ * The string of a collection of immutable elements is remembered by the value of the parameter of each UI and reused as
+ * long as the collection is unchanged.
+ *
+ * @param <T>    the type of the elements
+ * @param <COLL> the type of the collections created
+ */
 public class CollectionValueConverter<T, COLL extends Collection> implements Converter<Collection<T>> {
-	private static final String BEGIN = "(";
-	private static final String SEPARATOR = ",";
-	private static final String END = ")";
+	/**
+	 * The order the elements of a collection are written in
+	 */
+	public enum Ordering {
+		/**
+		 * the iteration order of the collection - for lists and linked or sorted sets
+		 */
+		INSERTION,
+		/**
+		 * the natural order of the elements; when any element is not Comparable, the order of their string forms
+		 */
+		NATURAL,
+		/**
+		 * the order of the string forms of the elements
+		 */
+		STRING_FORM
+	}
+
+	@Getter
+	private final Converter<T> singleValueConverter;
+	private final IntFunction<COLL> collectionFactory;
+	private final Type internalClass;
+	// every type a collection of this converter can be assigned to
+	private final Set<Type> assignableTypes;
+	@Getter
+	private final Ordering ordering;
 	@Getter
-	private Converter<T> singleValueConverter;
-	private Class<COLL> collectionClass;
+	private volatile boolean compactEncoding;
 
 	public CollectionValueConverter(@NonNull Converter<T> singleValueConverter, @NonNull Class<COLL> collectionClass) {
+		this(singleValueConverter, collectionClass, Ordering.NATURAL);
+	}
+
+	public CollectionValueConverter(@NonNull Converter<T> singleValueConverter, @NonNull Class<COLL> collectionClass, @NonNull Ordering ordering) {
+		this(singleValueConverter, collectionClass, CollectionFactories.forClass(checkInstantiable(collectionClass)), ordering);
+	}
+
+	/**
+	 * Instantiates a new collection value converter creating its collections with the given factory
+	 *
+	 * @param singleValueConverter the converter of the elements
+	 * @param collectionClass      the class of the collections created
+	 * @param collectionFactory    creates an empty collection for the given number of elements
+	 */
+	public CollectionValueConverter(@NonNull Converter<T> singleValueConverter, @NonNull Class<COLL> collectionClass, @NonNull IntFunction<COLL> collectionFactory) {
+		this(singleValueConverter, collectionClass, collectionFactory, Ordering.NATURAL);
+	}
+
+	/**
+	 * Instantiates a new collection value converter
+	 *
+	 * @param singleValueConverter the converter of the elements
+	 * @param collectionClass      the class of the collections created
+	 * @param collectionFactory    creates an empty collection for the given number of elements
+	 * @param ordering             the order the elements are written in
+	 */
+	public CollectionValueConverter(@NonNull Converter<T> singleValueConverter, @NonNull Class<COLL> collectionClass, @NonNull IntFunction<COLL> collectionFactory, @NonNull Ordering ordering) {
+		this.singleValueConverter = singleValueConverter;
+		this.ordering = ordering;
+		this.collectionFactory = collectionFactory;
+		this.internalClass = new MoreTypes.ParameterizedTypeImpl(null, collectionClass, singleValueConverter.getInternalClass());
+		this.assignableTypes = AssignableTypes.of(collectionClass, singleValueConverter.getInternalClass());
+	}
+
+	private static <C> Class<C> checkInstantiable(Class<C> collectionClass) {
 		if (collectionClass.isInterface()) {
 			throw new IllegalArgumentException("Don't pass interface here but an instantiable class");
 		}
 		if (Modifier.isAbstract(collectionClass.getModifiers())) {
 			throw new IllegalArgumentException("Given collection class cannot be abstract");
 		}
-		this.singleValueConverter = singleValueConverter;
-		this.collectionClass = collectionClass;
+		return collectionClass;
 	}
 
 	@Override
 	public final Type getInternalClass() {
-		return getParametrizedType(collectionClass);
-	}
-
-	private ParameterizedType getParametrizedType(Class collectionType) {
-		return new MoreTypes.ParameterizedTypeImpl(null, collectionType, singleValueConverter.getInternalClass());
+		return internalClass;
 	}
 
 	public Type getSingleValueClass() {
 		return singleValueConverter.getInternalClass();
 	}
 
+	/**
+	 * Switches the compact encoding on or off: consecutive numbers of a numeric element converter are written as ranges
+	 * (see CompactEncoding), sets of enum values as a bitset (see EnumValueConverter). The compact forms are read either
+	 * way.
+	 *
+	 * @param compactEncoding true to write the compact forms
+	 */
+	public void setCompactEncoding(boolean compactEncoding) {
+		this.compactEncoding = compactEncoding;
+	}
+
 	@Override
 	public Collection<T> getInternalObject(String stringRepresentation) {
-		Collection<T> result;
-		try {
-			result = collectionClass.newInstance();
-		} catch (InstantiationException | IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		return CompactEncoding.readElements(stringRepresentation, singleValueConverter, collectionFactory);
+	}
 
-		if (StringUtils.isNotEmpty(stringRepresentation)) {
-			if (stringRepresentation.startsWith(BEGIN)) {
-				int endIndex = stringRepresentation.lastIndexOf(END);
-				if (endIndex > 0) {
-					for (String elementString : stringRepresentation.substring(1, endIndex).split(SEPARATOR)) {
-						result.add(singleValueConverter.getInternalObject(elementString));
-					}
-				}
-			} else {
-				result.add(singleValueConverter.getInternalObject(stringRepresentation));
-			}
-		}
-		return result;
+	@Override
+	public ConversionResult<Collection<T>> tryGetInternalObject(String stringRepresentation) {
+		return CompactEncoding.tryReadElements(stringRepresentation, singleValueConverter, collectionFactory);
 	}
 
 	@Override
 	public String getStringRepresentation(Collection<T> o) {
-		int size = (o != null ? o.size() : 0);
-		switch (size) {
-			case 0:
-				return StringUtils.EMPTY;
-			case 1:
-				return singleValueConverter.getStringRepresentation((T) CollectionUtils.get((Object) o, 0));
-			default:
-				StringWriter result = new StringWriter();
-				result.append(BEGIN);
-				result.append(o.stream().sorted((o1, o2) -> {
-					if (o1 instanceof Comparable) {
-						return ((Comparable) o1).compareTo(o2);
-					} else {
-						return Integer.valueOf(o1.hashCode()).compareTo(o2.hashCode());
-					}
-				}).map(t -> singleValueConverter.getStringRepresentation(t)).
-						collect(Collectors.joining(SEPARATOR)));
-				result.append(END);
-				return result.toString();
+		if (o == null || o.isEmpty()) {
+			return StringUtils.EMPTY;
+		}
+		if (compactEncoding && o instanceof Set && singleValueConverter instanceof EnumValueConverter) {
+			return ((EnumValueConverter) singleValueConverter).getBitsetRepresentation(o);
 		}
+		String[] elementStrings = getOrderedStrings(o);
+		return MultiValueTokenizer.format(Arrays.asList(compactEncoding && singleValueConverter.isNumeric() ? CompactEncoding.collapseRanges(elementStrings) : elementStrings).iterator());
 	}
 
-	@Override
-	public boolean converts(Type valueClass) {
-		if (valueClass instanceof ParameterizedType) {
-			Class rawClass = collectionClass;
-
-			while (rawClass != null) {
-				ParameterizedType testType = getParametrizedType(rawClass);
-				if (valueClass.equals(testType)) {
-					return true;
-				}
-				Type interfaceType = findMatchingInterface(valueClass, testType);
-				if (interfaceType != null) {
-					return true;
-				}
-				rawClass = rawClass.getSuperclass();
+	private String[] getOrderedStrings(Collection<T> o) {
+		if (ordering == Ordering.NATURAL && !isInNaturalOrder(o)) {
+			Object[] elements = o.toArray();
+			if (isComparable(elements)) {
+				Arrays.sort(elements);
+				return toStrings(Arrays.asList(elements));
 			}
-			return false;
-		} else {
-			return false;
+			return toSortedStrings(o);
+		}
+		if (ordering == Ordering.STRING_FORM) {
+			return toSortedStrings(o);
 		}
+		return toStrings(o);
 	}
 
-	private Type findMatchingInterface(Type valueClass, ParameterizedType type) {
-		Type rawType = type.getRawType();
-		if (!(rawType instanceof Class)) {
-			return null;
+	/*
+	collections sorted by their natural order already need not be sorted again
+	 */
+	private static boolean isInNaturalOrder(Collection<?> o) {
+		if (o instanceof EnumSet) {
+			return true;
+		}
+		if (o instanceof SortedSet) {
+			return ((SortedSet) o).comparator() == null;
+		}
+		Object previous = null;
+		for (Object element : o) {
+			if (!(element instanceof Comparable)) {
+				return false;
+			}
+			if (previous != null && ((Comparable) previous).compareTo(element) > 0) {
+				return false;
+			}
+			previous = element;
 		}
-		for (Class inferfaceClass : ((Class) rawType).getInterfaces()) {
-			ParameterizedType testType = getParametrizedType(inferfaceClass);
-			if (valueClass.equals(testType)) {
-				return testType;
+		return true;
+	}
+
+	private static boolean isComparable(Object[] elements) {
+		for (Object element : elements) {
+			if (!(element instanceof Comparable)) {
+				return false;
 			}
-			Type result = findMatchingInterface(valueClass, testType);
-			if (result != null) {
-				return type;
+		}
+		return true;
+	}
+
+	private String[] toStrings(Collection<?> elements) {
+		String[] result = new String[elements.size()];
+		int i = 0;
+		for (Object element : elements) {
+			result[i++] = singleValueConverter.getStringRepresentation((T) element);
+		}
+		return result;
+	}
+
+	private String[] toSortedStrings(Collection<T> elements) {
+		String[] result = toStrings(elements);
+		for (int i = 1; i < result.length; i++) {
+			if (compareNullsFirst(result[i - 1], result[i]) > 0) {
+				Arrays.sort(result, CollectionValueConverter::compareNullsFirst);
+				break;
 			}
 		}
-		return null;
+		return result;
+	}
+
+	private static int compareNullsFirst(String s1, String s2) {
+		if (s1 == null || s2 == null) {
+			return s1 == null ? (s2 == null ? 0 : -1) : 1;
+		}
+		return s1.compareTo(s2);
+	}
+
+	@Override
+	public boolean converts(Type valueClass) {
+		return assignableTypes.contains(valueClass);
 	}
 }
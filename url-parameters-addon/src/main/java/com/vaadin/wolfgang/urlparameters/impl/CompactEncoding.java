@@ -0,0 +1,208 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.BulkConverter;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * The CompactEncoding shortens the string form of the collection converters for large collections of numeric ids:
+ * three or more consecutive ids are written as a range, <code>(1-500,502)</code> instead of
+ * <code>(1,2,3,...,500,502)</code>. Ranges are only written and read for the elements of numeric converters (see
+ * <code>Converter.isNumeric</code>), which never write an element like <code>1-500</code> themselves - the element
+ * strings of any other converter are taken as they are, <code>10-12</code> may be a valid string value. A collection
+ * converter of a numeric converter reads ranges whether it writes them or not.
+ */
+public final class CompactEncoding {
+	public static final char RANGE_SEPARATOR = '-';
+	/**
+	 * the maximum number of elements a single range may expand to
+	 */
+	public static final long MAX_RANGE_LENGTH = 100_000;
+	/**
+	 * the maximum number of elements a whole string form may expand to - the ranges of a short url could add up to
+	 * millions of elements otherwise
+	 */
+	public static final int MAX_ELEMENTS = 100_000;
+	private static final int MIN_RANGE_LENGTH = 3;
+	// Long.MAX_VALUE has 19 digits, every number with less fits
+	private static final int MAX_DIGITS = 18;
+
+	private CompactEncoding() {
+	}
+
+	/**
+	 * Collapses runs of consecutive numbers into ranges - meant for the element strings of numeric converters only
+	 *
+	 * @param elementStrings the string forms of the elements in the order they are written
+	 * @return the element strings with ranges or the given array if not all elements are numbers
+	 */
+	public static String[] collapseRanges(String[] elementStrings) {
+		if (elementStrings.length < MIN_RANGE_LENGTH) {
+			return elementStrings;
+		}
+		long[] numbers = new long[elementStrings.length];
+		for (int i = 0; i < elementStrings.length; i++) {
+			if (!isNumber(elementStrings[i], 0, elementStrings[i] != null ? elementStrings[i].length() : 0)) {
+				return elementStrings;
+			}
+			numbers[i] = Long.parseLong(elementStrings[i]);
+		}
+		String[] result = new String[elementStrings.length];
+		int count = 0;
+		int start = 0;
+		while (start < numbers.length) {
+			int end = start + 1;
+			while (end < numbers.length && numbers[end] == numbers[end - 1] + 1) {
+				end++;
+			}
+			if (end - start >= MIN_RANGE_LENGTH) {
+				result[count++] = elementStrings[start] + RANGE_SEPARATOR + elementStrings[end - 1];
+			} else {
+				System.arraycopy(elementStrings, start, result, count, end - start);
+				count += end - start;
+			}
+			start = end;
+		}
+		return count < result.length ? Arrays.copyOf(result, count) : result;
+	}
+
+	/**
+	 * Hands the string forms of all numbers of a range to the consumer
+	 *
+	 * @param element  the string form of an element
+	 * @param consumer takes the string of every number in the range
+	 * @return the number of elements handed over or 0 if the element is no range
+	 * @throws IllegalArgumentException if the range is longer than MAX_RANGE_LENGTH
+	 */
+	public static long forEachInRange(String element, Consumer<String> consumer) {
+		int separator = element.indexOf(RANGE_SEPARATOR);
+		if (separator < 1 || !isNumber(element, 0, separator) || !isNumber(element, separator + 1, element.length())) {
+			return 0;
+		}
+		long first = Long.parseLong(element.substring(0, separator));
+		long last = Long.parseLong(element.substring(separator + 1));
+		if (first > last) {
+			return 0;
+		}
+		if (last - first >= MAX_RANGE_LENGTH) {
+			throw new IllegalArgumentException("Range " + element + " exceeds " + MAX_RANGE_LENGTH + " elements");
+		}
+		for (long number = first; number <= last; number++) {
+			consumer.accept(Long.toString(number));
+		}
+		return last - first + 1;
+	}
+
+	/*
+	the decoding part of the collection converters: the bitset form of an enum set and the ranges of a numeric converter
+	are accepted whether the converter writes the compact forms or not, so that compact urls stay valid when the
+	setting changes
+	 */
+	static <T> Collection<T> readElements(String stringRepresentation, Converter<T> singleValueConverter, IntFunction<? extends Collection> collectionFactory) {
+		if (EnumValueConverter.isBitset(stringRepresentation) && singleValueConverter instanceof EnumValueConverter) {
+			Collection<T> result = collectionFactory.apply(0);
+			((EnumValueConverter<?>) singleValueConverter).forEachInBitset(stringRepresentation, value -> result.add((T) value));
+			return result;
+		}
+		Collection<T> result = collectionFactory.apply(MultiValueTokenizer.countElements(stringRepresentation));
+		if (singleValueConverter instanceof BulkConverter) {
+			addAll(result, stringRepresentation, (BulkConverter<T>) singleValueConverter);
+		} else {
+			forEachElementString(stringRepresentation, singleValueConverter.isNumeric(), elementString -> result.add(singleValueConverter.getInternalObject(elementString)));
+		}
+		return result;
+	}
+
+	/*
+	readElements without exceptions for strings that cannot be converted - the single values are converted by their
+	tryGetInternalObject, the rare malformed bitsets and too long ranges are caught as well as the exceptions of a bulk
+	converter, like the default of tryGetInternalObject does
+	 */
+	static <T> ConversionResult<Collection<T>> tryReadElements(String stringRepresentation, Converter<T> singleValueConverter, IntFunction<? extends Collection> collectionFactory) {
+		try {
+			if (EnumValueConverter.isBitset(stringRepresentation) && singleValueConverter instanceof EnumValueConverter) {
+				return ConversionResult.success(readElements(stringRepresentation, singleValueConverter, collectionFactory));
+			}
+			Collection<T> result = collectionFactory.apply(MultiValueTokenizer.countElements(stringRepresentation));
+			if (singleValueConverter instanceof BulkConverter) {
+				addAll(result, stringRepresentation, (BulkConverter<T>) singleValueConverter);
+				return ConversionResult.success(result);
+			}
+			boolean[] failed = new boolean[1];
+			Consumer<String> adder = elementString -> {
+				if (!failed[0]) {
+					ConversionResult<T> element = singleValueConverter.tryGetInternalObject(elementString);
+					if (element.isSuccess()) {
+						result.add(element.getValue());
+					} else {
+						failed[0] = true;
+					}
+				}
+			};
+			forEachElementString(stringRepresentation, singleValueConverter.isNumeric(), adder);
+			return failed[0] ? ConversionResult.failure() : ConversionResult.success(result);
+		} catch (RuntimeException e) {
+			// a malformed bitset, too long ranges or too many elements or a failing bulk converter
+			return ConversionResult.failure();
+		}
+	}
+
+	/*
+	all element strings are resolved by one call, the elements are added in the order of their strings
+	 */
+	private static <T> void addAll(Collection<T> result, String stringRepresentation, BulkConverter<T> bulkConverter) {
+		List<String> elementStrings = new ArrayList<>(MultiValueTokenizer.countElements(stringRepresentation));
+		forEachElementString(stringRepresentation, bulkConverter.isNumeric(), elementStrings::add);
+		if (elementStrings.isEmpty()) {
+			return;
+		}
+		Map<String, T> elements = bulkConverter.getInternalObjects(elementStrings);
+		for (String elementString : elementStrings) {
+			result.add(elements.get(elementString));
+		}
+	}
+
+	/*
+	ranges are expanded for numeric converters only, throws an IllegalArgumentException as soon as more than
+	MAX_ELEMENTS elements are handed over
+	 */
+	private static void forEachElementString(String stringRepresentation, boolean ranges, Consumer<String> consumer) {
+		int[] count = new int[1];
+		Consumer<String> limited = elementString -> {
+			if (++count[0] > MAX_ELEMENTS) {
+				throw new IllegalArgumentException("The value expands to more than " + MAX_ELEMENTS + " elements");
+			}
+			consumer.accept(elementString);
+		};
+		MultiValueTokenizer.forEachElement(stringRepresentation, elementString -> {
+			if (!ranges || forEachInRange(elementString, limited) == 0) {
+				limited.accept(elementString);
+			}
+		});
+	}
+
+	/*
+	a decimal number without sign and leading zeros, so that parsing and writing it again results in the same string
+	 */
+	private static boolean isNumber(String s, int start, int end) {
+		int length = end - start;
+		if (length < 1 || length > MAX_DIGITS || (s.charAt(start) == '0' && length > 1)) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
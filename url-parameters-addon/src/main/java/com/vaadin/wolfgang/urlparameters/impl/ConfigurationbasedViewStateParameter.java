@@ -8,7 +8,7 @@ import lombok.NonNull;
 
 public class ConfigurationbasedViewStateParameter<T> extends ViewStateParameter<T> {
 	@Getter
-	private Class<T> parameterType;
+	private final Class<T> parameterType;
 
 	public ConfigurationbasedViewStateParameter(@NonNull String viewName, @NonNull ViewParameter viewParameter, @NonNull Converter converter) {
 		super(viewName, viewParameter, converter);
@@ -0,0 +1,76 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConversionExecutors creates executors for the parallel conversion of ViewStateParameters, see
+ * <code>ViewStateParameters.setParallelConversionExecutor</code>. An executor is meant to be shared by all UIs of an
+ * application - shut it down when the application stops.
+ */
+@Slf4j
+public final class ConversionExecutors {
+	private static final String THREAD_NAME_PREFIX = "url-parameters-conversion-";
+	private static final long KEEP_ALIVE_SECONDS = 60;
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	private ConversionExecutors() {
+	}
+
+	/**
+	 * Creates an executor of at most the given number of daemon threads, the threads end after a minute of idleness.
+	 * Conversions beyond the number of threads wait for one of them.
+	 *
+	 * @param threads the maximum number of conversions at the same time
+	 * @return the executor
+	 */
+	public static ExecutorService bounded(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be positive: " + threads);
+		}
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + THREAD_NUMBER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor result = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+		result.allowCoreThreadTimeOut(true);
+		return result;
+	}
+
+	/**
+	 * Creates an executor starting a virtual thread per conversion when the JVM supports them (Java 21 on), a bounded
+	 * one otherwise. Virtual threads do not block a thread of the platform while they wait for a repository, the number
+	 * of conversions at the same time is bounded by the repository then (e.g. the size of its connection pool).
+	 *
+	 * @param threads the maximum number of conversions at the same time if there are no virtual threads
+	 * @return the executor
+	 */
+	public static ExecutorService virtualThreadsOrBounded(int threads) {
+		ExecutorService result = virtualThreads();
+		return result != null ? result : bounded(threads);
+	}
+
+	/*
+	found by reflection, the add-on is built for Java 8
+	 */
+	private static ExecutorService virtualThreads() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.warn("Virtual threads are not available, using platform threads", e);
+			return null;
+		}
+	}
+}
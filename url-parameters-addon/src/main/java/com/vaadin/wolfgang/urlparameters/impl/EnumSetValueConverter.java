@@ -0,0 +1,27 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import lombok.NonNull;
+
+import java.util.EnumSet;
+
+/**
+ * The EnumSetValueConverter converts sets of enum values to EnumSets of their type - a bit vector instead of the
+ * entries of a HashSet. It is responsible for every set type an EnumSet can be assigned to, like Set&lt;T&gt; or
+ * Collection&lt;T&gt;.
+ *
+ * @param <T> the enum type
+ */
+public class EnumSetValueConverter<T extends Enum<T>> extends CollectionValueConverter<T, EnumSet> {
+	public EnumSetValueConverter(@NonNull Class<T> enumeratorClass) {
+		this(new EnumValueConverter<>(enumeratorClass));
+	}
+
+	/**
+	 * Instantiates a new enum set value converter
+	 *
+	 * @param enumValueConverter the converter of the single values, e.g. a case insensitive one
+	 */
+	public EnumSetValueConverter(@NonNull EnumValueConverter<T> enumValueConverter) {
+		super(enumValueConverter, EnumSet.class, size -> EnumSet.noneOf(enumValueConverter.getInternalClass()));
+	}
+}
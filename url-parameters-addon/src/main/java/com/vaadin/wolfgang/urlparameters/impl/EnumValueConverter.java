@@ -1,15 +1,70 @@
 package com.vaadin.wolfgang.urlparameters.impl;
 
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
 import com.vaadin.wolfgang.urlparameters.Converter;
+import lombok.Getter;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The EnumValueConverter converts enum values by their names. The names are looked up in a table built once per
+ * converter, optionally ignoring the case of the names.
+ *
+ * @param <T> the enum type
+ */
 @Slf4j
 public class EnumValueConverter<T extends Enum<T>> implements Converter<T> {
+	/**
+	 * the first character of the bitset form of a set of values
+	 */
+	public static final char BITSET_PREFIX = '~';
+
 	private Class<T> enumeratorClass;
+	private final T[] constants;
+	@Getter
+	private final boolean caseInsensitive;
+	private final Map<String, T> byName;
+	// the constants by their upper case names, without names that differ in their case only
+	private final Map<String, T> byUpperCaseName;
 
 	public EnumValueConverter(Class<T> enumeratorClass) {
+		this(enumeratorClass, false);
+	}
+
+	/**
+	 * Instantiates a new enum value converter
+	 *
+	 * @param enumeratorClass the enum type
+	 * @param caseInsensitive true to accept names in any case - the exact name is preferred where names differ by case
+	 *                        only
+	 */
+	public EnumValueConverter(@NonNull Class<T> enumeratorClass, boolean caseInsensitive) {
 		this.enumeratorClass = enumeratorClass;
+		this.constants = enumeratorClass.getEnumConstants();
+		this.caseInsensitive = caseInsensitive;
+		Map<String, T> names = new HashMap<>(constants.length * 2);
+		Map<String, T> upperCaseNames = new HashMap<>(caseInsensitive ? constants.length * 2 : 0);
+		Set<String> ambiguousNames = new HashSet<>();
+		for (T constant : constants) {
+			names.put(constant.name(), constant);
+			if (caseInsensitive && upperCaseNames.put(constant.name().toUpperCase(Locale.ROOT), constant) != null) {
+				ambiguousNames.add(constant.name().toUpperCase(Locale.ROOT));
+			}
+		}
+		upperCaseNames.keySet().removeAll(ambiguousNames);
+		this.byName = names;
+		this.byUpperCaseName = upperCaseNames;
 	}
 
 	@Override
@@ -22,11 +77,93 @@ public class EnumValueConverter<T extends Enum<T>> implements Converter<T> {
 		if (StringUtils.isEmpty(stringRepresentation)) {
 			return null;
 		}
-		return Enum.valueOf(enumeratorClass, stringRepresentation);
+		T result = lookup(stringRepresentation);
+		if (result == null) {
+			throw new IllegalArgumentException("No enum constant " + enumeratorClass.getCanonicalName() + "." + stringRepresentation);
+		}
+		return result;
+	}
+
+	@Override
+	public ConversionResult<T> tryGetInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return ConversionResult.success(null);
+		}
+		T result = lookup(stringRepresentation);
+		return result != null ? ConversionResult.success(result) : ConversionResult.failure();
+	}
+
+	/**
+	 * Finds the constant of a name
+	 *
+	 * @param name the name, may be null
+	 * @return the constant or null when there is none of that name
+	 */
+	public T lookup(String name) {
+		if (name == null) {
+			return null;
+		}
+		T result = byName.get(name);
+		if (result == null && caseInsensitive) {
+			result = byUpperCaseName.get(name.toUpperCase(Locale.ROOT));
+		}
+		return result;
 	}
 
 	@Override
 	public String getStringRepresentation(T o) {
 		return o != null ? o.name() : StringUtils.EMPTY;
 	}
+
+	/**
+	 * Writes a set of values as a bitset of their ordinals, url safe base64 encoded and prefixed with BITSET_PREFIX. The
+	 * bitset form depends on the order of the enum constants: reordering them changes the meaning of bookmarked urls.
+	 *
+	 * @param values the values, null elements are left out
+	 * @return the bitset form like "~Bw" or an empty string when there are no values
+	 */
+	public String getBitsetRepresentation(Collection<T> values) {
+		BitSet bits = new BitSet(constants.length);
+		for (T value : values) {
+			if (value != null) {
+				bits.set(value.ordinal());
+			}
+		}
+		if (bits.isEmpty()) {
+			return StringUtils.EMPTY;
+		}
+		return BITSET_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray());
+	}
+
+	/**
+	 * Hands the values of a bitset form to the consumer in the order of their ordinals
+	 *
+	 * @param bitsetRepresentation the bitset form as written by getBitsetRepresentation
+	 * @param consumer             takes every value
+	 * @return the number of values
+	 * @throws IllegalArgumentException if the string is no bitset of this enum
+	 */
+	public int forEachInBitset(String bitsetRepresentation, Consumer<T> consumer) {
+		if (!isBitset(bitsetRepresentation)) {
+			throw new IllegalArgumentException("No bitset: " + bitsetRepresentation);
+		}
+		BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(bitsetRepresentation.substring(1)));
+		if (bits.length() > constants.length) {
+			throw new IllegalArgumentException("Bitset " + bitsetRepresentation + " exceeds the constants of " + enumeratorClass.getName());
+		}
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			consumer.accept(constants[i]);
+		}
+		return bits.cardinality();
+	}
+
+	/**
+	 * Tells whether a string is a bitset form - no enum constant starts with BITSET_PREFIX
+	 *
+	 * @param stringRepresentation the string form, may be null
+	 * @return true if it is a bitset form
+	 */
+	public static boolean isBitset(String stringRepresentation) {
+		return stringRepresentation != null && !stringRepresentation.isEmpty() && stringRepresentation.charAt(0) == BITSET_PREFIX;
+	}
 }
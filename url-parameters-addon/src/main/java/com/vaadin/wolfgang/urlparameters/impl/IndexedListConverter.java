@@ -0,0 +1,205 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.data.provider.DataProvider;
+import com.vaadin.data.provider.Query;
+import com.vaadin.shared.Registration;
+import com.vaadin.wolfgang.urlparameters.BulkConverter;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * The IndexedListConverter converts the items of a list or a data provider by a key, e.g. their ids: the string
+ * representation of an item is the string of its key. The items are found in a hash index by their keys that is built
+ * on the first lookup. The index of a data provider is built again after the data provider announced a change, the
+ * index of a list after a call of refresh.
+ * The index holds every item: all rows of a data provider are fetched with an unrestricted query. Use it for lists
+ * and in-memory data providers of moderate size, not for lazy backends with many rows.
+ *
+ * @param <T> the type of the items
+ * @param <K> the type of the keys
+ */
+public class IndexedListConverter<T, K> implements BulkConverter<T> {
+	private final Type internalClass;
+	private final Function<? super T, ? extends K> keyFunction;
+	private final Function<String, ? extends K> keyParser;
+	private final Function<? super K, String> keyFormatter;
+	private final Supplier<Stream<? extends T>> items;
+	private final Registration dataProviderRegistration;
+	// counts the calls of refresh, an index built during one of them is not kept
+	private final AtomicLong generation = new AtomicLong();
+	private volatile Index<K, T> index;
+	private volatile boolean numeric;
+
+	/**
+	 * Instantiates a new indexed list converter for the items of a list. The keys are written by their toString.
+	 *
+	 * @param internalClass the type of the items
+	 * @param items         the items - call refresh after they changed
+	 * @param keyFunction   gets the key of an item
+	 * @param keyParser     gets the key of a string representation, e.g. Integer::valueOf
+	 */
+	public IndexedListConverter(@NonNull Type internalClass, @NonNull Collection<? extends T> items, @NonNull Function<? super T, ? extends K> keyFunction, @NonNull Function<String, ? extends K> keyParser) {
+		this(internalClass, items::stream, null, keyFunction, keyParser, String::valueOf);
+	}
+
+	/**
+	 * Instantiates a new indexed list converter for the items of a data provider. The keys are written by their
+	 * toString.
+	 *
+	 * @param internalClass the type of the items
+	 * @param dataProvider  provides the items, all of them are fetched to build the index; its changes are tracked -
+	 *                      call detach when the converter is not used anymore
+	 * @param keyFunction   gets the key of an item
+	 * @param keyParser     gets the key of a string representation, e.g. Integer::valueOf
+	 */
+	public IndexedListConverter(@NonNull Type internalClass, @NonNull DataProvider<T, ?> dataProvider, @NonNull Function<? super T, ? extends K> keyFunction, @NonNull Function<String, ? extends K> keyParser) {
+		this(internalClass, () -> dataProvider.fetch(new Query<>()), dataProvider, keyFunction, keyParser, String::valueOf);
+	}
+
+	/**
+	 * Instantiates a new indexed list converter
+	 *
+	 * @param internalClass the type of the items
+	 * @param items         provides all items whenever the index is built
+	 * @param dataProvider  the data provider whose changes are tracked, may be null
+	 * @param keyFunction   gets the key of an item
+	 * @param keyParser     gets the key of a string representation
+	 * @param keyFormatter  gets the string representation of a key
+	 */
+	protected IndexedListConverter(@NonNull Type internalClass, @NonNull Supplier<Stream<? extends T>> items, DataProvider<T, ?> dataProvider, @NonNull Function<? super T, ? extends K> keyFunction, @NonNull Function<String, ? extends K> keyParser, @NonNull Function<? super K, String> keyFormatter) {
+		this.internalClass = internalClass;
+		this.items = items;
+		this.keyFunction = keyFunction;
+		this.keyParser = keyParser;
+		this.keyFormatter = keyFormatter;
+		this.dataProviderRegistration = dataProvider != null ? dataProvider.addDataProviderListener(event -> refresh()) : null;
+	}
+
+	@Override
+	public Type getInternalClass() {
+		return internalClass;
+	}
+
+	/**
+	 * Finds the item of a string representation
+	 *
+	 * @param stringRepresentation the string of the key
+	 * @return the item or null when there is no item of that key
+	 * @throws RuntimeException the exception of the key parser if the string is no key
+	 */
+	@Override
+	public T getInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return null;
+		}
+		return getIndex().get(keyParser.apply(stringRepresentation));
+	}
+
+	@Override
+	public ConversionResult<T> tryGetInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return ConversionResult.success(null);
+		}
+		K key;
+		try {
+			key = keyParser.apply(stringRepresentation);
+		} catch (RuntimeException e) {
+			return ConversionResult.failure();
+		}
+		return ConversionResult.success(getIndex().get(key));
+	}
+
+	@Override
+	public Map<String, T> getInternalObjects(@NonNull Collection<String> stringRepresentations) {
+		Map<K, T> index = getIndex();
+		Map<String, T> result = new HashMap<>(stringRepresentations.size() * 2);
+		for (String stringRepresentation : stringRepresentations) {
+			if (StringUtils.isNotEmpty(stringRepresentation)) {
+				T item = index.get(keyParser.apply(stringRepresentation));
+				if (item != null) {
+					result.put(stringRepresentation, item);
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String getStringRepresentation(T o) {
+		return o != null ? keyFormatter.apply(keyFunction.apply(o)) : StringUtils.EMPTY;
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return numeric;
+	}
+
+	/**
+	 * Tells the collection converters that the keys are written as decimal numbers (e.g. ids of type Long or Integer),
+	 * so that runs of consecutive keys can be written and read as ranges, see CompactEncoding
+	 *
+	 * @param numeric true if every key is written as a decimal number
+	 */
+	public void setNumeric(boolean numeric) {
+		this.numeric = numeric;
+	}
+
+	/**
+	 * Drops the index, it gets built again on the next lookup
+	 */
+	public void refresh() {
+		generation.incrementAndGet();
+		index = null;
+	}
+
+	/**
+	 * Stops tracking the changes of the data provider
+	 */
+	public void detach() {
+		if (dataProviderRegistration != null) {
+			dataProviderRegistration.remove();
+		}
+	}
+
+	/*
+	concurrent lookups may build the index more than once, each of them builds a complete one. An index is kept only
+	if refresh was not called while it was built - it may hold the items from before the change otherwise
+	 */
+	private Map<K, T> getIndex() {
+		long currentGeneration = generation.get();
+		Index<K, T> current = index;
+		if (current != null && current.generation == currentGeneration) {
+			return current.items;
+		}
+		Map<K, T> built = new HashMap<>();
+		try (Stream<? extends T> stream = items.get()) {
+			stream.forEach(item -> built.putIfAbsent(keyFunction.apply(item), item));
+		}
+		Map<K, T> result = Collections.unmodifiableMap(built);
+		if (generation.get() == currentGeneration) {
+			index = new Index<>(currentGeneration, result);
+		}
+		return result;
+	}
+
+	private static final class Index<K, T> {
+		private final long generation;
+		private final Map<K, T> items;
+
+		private Index(long generation, Map<K, T> items) {
+			this.generation = generation;
+			this.items = items;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.lang.reflect.Type;
+
+/**
+ * The IntArrayConverter converts sets of numeric ids to sorted int arrays without duplicates, like the
+ * LongArrayConverter does for long ids.
+ */
+public class IntArrayConverter implements Converter<int[]> {
+	// write three or more consecutive numbers as a range
+	@Getter
+	@Setter
+	private volatile boolean compactEncoding;
+
+	@Override
+	public Type getInternalClass() {
+		return int[].class;
+	}
+
+	@Override
+	public int[] getInternalObject(String stringRepresentation) {
+		int[] result = parse(stringRepresentation);
+		if (result == null) {
+			throw new NumberFormatException("No set of numbers: " + stringRepresentation);
+		}
+		return result;
+	}
+
+	@Override
+	public ConversionResult<int[]> tryGetInternalObject(String stringRepresentation) {
+		int[] result = parse(stringRepresentation);
+		return result != null ? ConversionResult.success(result) : ConversionResult.failure();
+	}
+
+	/**
+	 * Writes the distinct numbers in ascending order, the array is left as it is.
+	 */
+	@Override
+	public String getStringRepresentation(int[] o) {
+		if (o == null) {
+			return "";
+		}
+		if (PrimitiveNumbers.isSortedAndDistinct(o.length, i -> o[i])) {
+			return PrimitiveNumbers.format(o.length, i -> o[i], compactEncoding);
+		}
+		long[] numbers = new long[o.length];
+		for (int i = 0; i < o.length; i++) {
+			numbers[i] = o[i];
+		}
+		long[] distinct = PrimitiveNumbers.distinct(numbers, numbers.length);
+		return PrimitiveNumbers.format(distinct.length, i -> distinct[i], compactEncoding);
+	}
+
+	private static int[] parse(String stringRepresentation) {
+		long[] numbers = PrimitiveNumbers.parseSet(stringRepresentation, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		if (numbers == null) {
+			return null;
+		}
+		int[] result = new int[numbers.length];
+		for (int i = 0; i < numbers.length; i++) {
+			result[i] = (int) numbers[i];
+		}
+		return result;
+	}
+}
@@ -0,0 +1,53 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Type;
+
+/**
+ * The IntConverter converts decimal numbers to Integer values - and to int values of primitive properties.
+ */
+public class IntConverter implements Converter<Integer> {
+	@Override
+	public boolean converts(Type valueClass) {
+		return valueClass == Integer.class || valueClass == int.class;
+	}
+
+	@Override
+	public Type getInternalClass() {
+		return Integer.class;
+	}
+
+	@Override
+	public Integer getInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return null;
+		}
+		PrimitiveNumbers.Cursor number = PrimitiveNumbers.parseNumber(stringRepresentation, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		if (number.isFailed()) {
+			throw new NumberFormatException("No int: " + stringRepresentation);
+		}
+		return (int) number.getValue();
+	}
+
+	@Override
+	public ConversionResult<Integer> tryGetInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return ConversionResult.success(null);
+		}
+		PrimitiveNumbers.Cursor number = PrimitiveNumbers.parseNumber(stringRepresentation, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		return number.isFailed() ? ConversionResult.failure() : ConversionResult.success((int) number.getValue());
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	public String getStringRepresentation(Integer o) {
+		return o != null ? o.toString() : StringUtils.EMPTY;
+	}
+}
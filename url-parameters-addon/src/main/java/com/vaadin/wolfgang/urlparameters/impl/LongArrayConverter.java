@@ -0,0 +1,52 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.lang.reflect.Type;
+
+/**
+ * The LongArrayConverter converts sets of numeric ids to sorted long arrays without duplicates - no boxed element per
+ * id. The string form is the one of the collection converters: "5", "(1,2,5)" and, as the compact encoding, ranges
+ * like "(1-500,502)". Ranges are always read, there is no other meaning they could have for numbers.
+ */
+public class LongArrayConverter implements Converter<long[]> {
+	// write three or more consecutive numbers as a range
+	@Getter
+	@Setter
+	private volatile boolean compactEncoding;
+
+	@Override
+	public Type getInternalClass() {
+		return long[].class;
+	}
+
+	@Override
+	public long[] getInternalObject(String stringRepresentation) {
+		long[] result = PrimitiveNumbers.parseSet(stringRepresentation, Long.MIN_VALUE, Long.MAX_VALUE);
+		if (result == null) {
+			throw new NumberFormatException("No set of numbers: " + stringRepresentation);
+		}
+		return result;
+	}
+
+	@Override
+	public ConversionResult<long[]> tryGetInternalObject(String stringRepresentation) {
+		long[] result = PrimitiveNumbers.parseSet(stringRepresentation, Long.MIN_VALUE, Long.MAX_VALUE);
+		return result != null ? ConversionResult.success(result) : ConversionResult.failure();
+	}
+
+	/**
+	 * Writes the distinct numbers in ascending order, the array is left as it is.
+	 */
+	@Override
+	public String getStringRepresentation(long[] o) {
+		if (o == null) {
+			return "";
+		}
+		long[] numbers = PrimitiveNumbers.isSortedAndDistinct(o.length, i -> o[i]) ? o : PrimitiveNumbers.distinct(o, o.length);
+		return PrimitiveNumbers.format(numbers.length, i -> numbers[i], compactEncoding);
+	}
+}
@@ -0,0 +1,53 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Type;
+
+/**
+ * The LongConverter converts decimal numbers to Long values - and to long values of primitive properties.
+ */
+public class LongConverter implements Converter<Long> {
+	@Override
+	public boolean converts(Type valueClass) {
+		return valueClass == Long.class || valueClass == long.class;
+	}
+
+	@Override
+	public Type getInternalClass() {
+		return Long.class;
+	}
+
+	@Override
+	public Long getInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return null;
+		}
+		PrimitiveNumbers.Cursor number = PrimitiveNumbers.parseNumber(stringRepresentation, Long.MIN_VALUE, Long.MAX_VALUE);
+		if (number.isFailed()) {
+			throw new NumberFormatException("No long: " + stringRepresentation);
+		}
+		return number.getValue();
+	}
+
+	@Override
+	public ConversionResult<Long> tryGetInternalObject(String stringRepresentation) {
+		if (StringUtils.isEmpty(stringRepresentation)) {
+			return ConversionResult.success(null);
+		}
+		PrimitiveNumbers.Cursor number = PrimitiveNumbers.parseNumber(stringRepresentation, Long.MIN_VALUE, Long.MAX_VALUE);
+		return number.isFailed() ? ConversionResult.failure() : ConversionResult.success(number.getValue());
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	public String getStringRepresentation(Long o) {
+		return o != null ? o.toString() : StringUtils.EMPTY;
+	}
+}
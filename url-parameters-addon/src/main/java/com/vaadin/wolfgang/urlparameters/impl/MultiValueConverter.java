@@ -1,34 +1,52 @@
 package com.vaadin.wolfgang.urlparameters.impl;
 
 import com.google.inject.internal.MoreTypes;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
 import com.vaadin.wolfgang.urlparameters.Converter;
 import lombok.Getter;
 import lombok.NonNull;
-import org.apache.commons.collections4.CollectionUtils;
+import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.StringWriter;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.IntFunction;
 
 public class MultiValueConverter<T, COLL extends Collection> implements Converter<Collection<T>> {
-	private static final String BEGIN = "(";
-	private static final String SEPARATOR = ",";
-	private static final String END = ")";
 	@Getter
-	private Converter<T> singleValueConverter;
-	private Class<COLL> collectionClass;
+	private final Converter<T> singleValueConverter;
+	private final IntFunction<COLL> collectionFactory;
+	private final Type internalClass;
+	// every type a collection of this converter can be assigned to
+	private final Set<Type> assignableTypes;
+	// write ranges of numbers (of a numeric element converter) and enum sets as bitsets, the compact forms are read either way
+	@Getter
+	@Setter
+	private volatile boolean compactEncoding;
+
+	public MultiValueConverter(@NonNull Converter<T> singleValueConverter, @NonNull Class<COLL> collectionClass) {
+		this(singleValueConverter, collectionClass, CollectionFactories.forClass(collectionClass));
+	}
 
-	public MultiValueConverter(@NonNull Converter<T> singleValueConverter, Class<COLL> collectionClass) {
+	/**
+	 * Instantiates a new multi value converter creating its collections with the given factory
+	 *
+	 * @param singleValueConverter the converter of the elements
+	 * @param collectionClass      the class of the collections created
+	 * @param collectionFactory    creates an empty collection for the given number of elements
+	 */
+	public MultiValueConverter(@NonNull Converter<T> singleValueConverter, @NonNull Class<COLL> collectionClass, @NonNull IntFunction<COLL> collectionFactory) {
 		this.singleValueConverter = singleValueConverter;
-		this.collectionClass = collectionClass;
+		this.collectionFactory = collectionFactory;
+		this.internalClass = new MoreTypes.ParameterizedTypeImpl(null, collectionClass, singleValueConverter.getInternalClass());
+		this.assignableTypes = AssignableTypes.of(collectionClass, singleValueConverter.getInternalClass());
 	}
 
 	@Override
 	public final Type getInternalClass() {
-		return new MoreTypes.ParameterizedTypeImpl(null, collectionClass, singleValueConverter.getInternalClass());
+		return internalClass;
 	}
 
 	public Type getSingleValueClass() {
@@ -37,82 +55,31 @@ public class MultiValueConverter<T, COLL extends Collection> implements Converte
 
 	@Override
 	public Collection<T> getInternalObject(String stringRepresentation) {
-		Collection<T> result;
-		try {
-			result = collectionClass.newInstance();
-		} catch (InstantiationException | IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		return CompactEncoding.readElements(stringRepresentation, singleValueConverter, collectionFactory);
+	}
 
-		if (StringUtils.isNotEmpty(stringRepresentation)) {
-			if (stringRepresentation.startsWith(BEGIN)) {
-				int endIndex = stringRepresentation.lastIndexOf(END);
-				if (endIndex > 0) {
-					for (String elementString : stringRepresentation.substring(1, endIndex).split(SEPARATOR)) {
-						result.add(singleValueConverter.getInternalObject(elementString));
-					}
-				}
-			} else {
-				result.add(singleValueConverter.getInternalObject(stringRepresentation));
-			}
-		}
-		return result;
+	@Override
+	public ConversionResult<Collection<T>> tryGetInternalObject(String stringRepresentation) {
+		return CompactEncoding.tryReadElements(stringRepresentation, singleValueConverter, collectionFactory);
 	}
 
 	@Override
 	public String getStringRepresentation(Collection<T> o) {
-		int size = (o != null ? o.size() : 0);
-		switch (size) {
-			case 0:
-				return StringUtils.EMPTY;
-			case 1:
-				return singleValueConverter.getStringRepresentation((T) CollectionUtils.get((Object) o, 0));
-			default:
-				StringWriter result = new StringWriter();
-				result.append(BEGIN);
-				result.append(o.stream().map(t -> singleValueConverter.getStringRepresentation(t)).collect(Collectors.joining(SEPARATOR)));
-				result.append(END);
-				return result.toString();
+		if (o == null || o.isEmpty()) {
+			return StringUtils.EMPTY;
+		}
+		if (!compactEncoding) {
+			return MultiValueTokenizer.format(o.stream().map(t -> singleValueConverter.getStringRepresentation(t)).iterator());
 		}
+		if (o instanceof Set && singleValueConverter instanceof EnumValueConverter) {
+			return ((EnumValueConverter) singleValueConverter).getBitsetRepresentation(o);
+		}
+		String[] elementStrings = o.stream().map(t -> singleValueConverter.getStringRepresentation(t)).toArray(String[]::new);
+		return MultiValueTokenizer.format(Arrays.asList(singleValueConverter.isNumeric() ? CompactEncoding.collapseRanges(elementStrings) : elementStrings).iterator());
 	}
 
 	@Override
 	public boolean converts(Type valueClass) {
-		// legal as long as getInternalClass remains final and unchanged
-		ParameterizedType testType = (ParameterizedType) getInternalClass();
-
-		while (true) {
-			if (valueClass.equals(testType)) {
-				return true;
-			}
-			Type rawType = testType.getRawType();
-			if (!(rawType instanceof Class)) {
-				return false;
-			}
-			Class rawClass = (Class) rawType;
-			Type interfaceType = findMatchingInterface(valueClass, testType);
-			if (interfaceType != null) {
-				return true;
-			}
-			testType = new MoreTypes.ParameterizedTypeImpl(null, rawClass.getSuperclass(), singleValueConverter.getInternalClass());
-		}
-	}
-
-	private Type findMatchingInterface(Type valueClass, ParameterizedType type) {
-		Type rawType = type.getRawType();
-		if (!(rawType instanceof Class)) {
-			return null;
-		}
-		for (Class inferfaceClass : ((Class) rawType).getInterfaces()) {
-			ParameterizedType testType = new MoreTypes.ParameterizedTypeImpl(null, inferfaceClass, singleValueConverter.getInternalClass());
-			if (valueClass.equals(testType)) {
-				return testType;
-			}
-			Type result = findMatchingInterface(valueClass, testType);
-			if (result != null) {
-				return type;
-			}
-		}
-		return null;
+		return assignableTypes.contains(valueClass);
 	}
 }
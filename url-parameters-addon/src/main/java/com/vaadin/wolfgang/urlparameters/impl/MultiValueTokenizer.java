@@ -0,0 +1,173 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * The MultiValueTokenizer reads and writes the string form of the collection converters: <code>(a,b,c)</code> for
+ * several elements, just <code>a</code> for a single one. It walks the string once and hands every element to a
+ * consumer, no intermediate arrays or regular expressions involved.
+ * <ul>
+ * <li>',', '(', ')' and '\' inside an element are escaped with a '\'</li>
+ * <li>an element that is a group in parentheses itself - like the string form of a nested collection or a tuple - is
+ * written as it is and handed over as it is, including its parentheses and escapes: <code>((1,2),(3,4))</code> has the
+ * elements <code>(1,2)</code> and <code>(3,4)</code></li>
+ * <li>a string without leading '(' is a single element, taken as it is</li>
+ * </ul>
+ */
+public final class MultiValueTokenizer {
+	public static final char BEGIN = '(';
+	public static final char SEPARATOR = ',';
+	public static final char END = ')';
+	public static final char ESCAPE = '\\';
+
+	private MultiValueTokenizer() {
+	}
+
+	/**
+	 * Counts the elements of a string form
+	 *
+	 * @param stringRepresentation the string form, may be null
+	 * @return the number of elements
+	 */
+	public static int countElements(String stringRepresentation) {
+		return scan(stringRepresentation, null);
+	}
+
+	/**
+	 * Hands the elements of a string form to the consumer in the order they are written
+	 *
+	 * @param stringRepresentation the string form, may be null
+	 * @param consumer             takes the (unescaped) string of every element
+	 * @return the number of elements
+	 */
+	public static int forEachElement(String stringRepresentation, Consumer<String> consumer) {
+		return scan(stringRepresentation, consumer);
+	}
+
+	/**
+	 * Writes the string form of the given element strings
+	 *
+	 * @param elementStrings the string forms of the elements
+	 * @return the string form - empty when there are no elements
+	 */
+	public static String format(Iterator<String> elementStrings) {
+		if (!elementStrings.hasNext()) {
+			return "";
+		}
+		String first = nullToEmpty(elementStrings.next());
+		if (!elementStrings.hasNext() && (first.isEmpty() || first.charAt(0) != BEGIN)) {
+			return first;
+		}
+		StringBuilder result = new StringBuilder(first.length() * 4 + 2);
+		result.append(BEGIN);
+		appendElement(result, first);
+		while (elementStrings.hasNext()) {
+			result.append(SEPARATOR);
+			appendElement(result, nullToEmpty(elementStrings.next()));
+		}
+		return result.append(END).toString();
+	}
+
+	private static String nullToEmpty(String s) {
+		return s != null ? s : "";
+	}
+
+	private static void appendElement(StringBuilder result, String element) {
+		if (isGroup(element)) {
+			result.append(element);
+			return;
+		}
+		for (int i = 0; i < element.length(); i++) {
+			char c = element.charAt(i);
+			if (c == SEPARATOR || c == BEGIN || c == END || c == ESCAPE) {
+				result.append(ESCAPE);
+			}
+			result.append(c);
+		}
+	}
+
+	/*
+	a group starts with '(' and its matching ')' is the last character
+	 */
+	private static boolean isGroup(String element) {
+		int length = element.length();
+		if (length < 2 || element.charAt(0) != BEGIN) {
+			return false;
+		}
+		int depth = 0;
+		for (int i = 0; i < length; i++) {
+			char c = element.charAt(i);
+			if (c == ESCAPE) {
+				i++;
+			} else if (c == BEGIN) {
+				depth++;
+			} else if (c == END && --depth == 0) {
+				return i == length - 1;
+			}
+		}
+		return false;
+	}
+
+	private static int scan(String s, Consumer<String> consumer) {
+		if (s == null || s.isEmpty()) {
+			return 0;
+		}
+		if (s.charAt(0) != BEGIN) {
+			if (consumer != null) {
+				consumer.accept(s);
+			}
+			return 1;
+		}
+		int length = s.length();
+		if (length == 1 || s.charAt(1) == END) {
+			return 0;
+		}
+		int count = 0;
+		int i = 1;
+		while (true) {
+			int start = i;
+			int depth = 0;
+			StringBuilder unescaped = null;
+			while (i < length) {
+				char c = s.charAt(i);
+				if (c == ESCAPE && i + 1 < length) {
+					// escapes are resolved on the top level only, a group is handed over as it is
+					if (consumer != null) {
+						if (depth == 0) {
+							if (unescaped == null) {
+								unescaped = new StringBuilder(length - start).append(s, start, i);
+							}
+							unescaped.append(s.charAt(i + 1));
+						} else if (unescaped != null) {
+							unescaped.append(c).append(s.charAt(i + 1));
+						}
+					}
+					i += 2;
+					continue;
+				}
+				if (depth == 0 && (c == SEPARATOR || c == END)) {
+					break;
+				}
+				if (c == BEGIN) {
+					depth++;
+				} else if (c == END) {
+					depth--;
+				}
+				if (unescaped != null) {
+					unescaped.append(c);
+				}
+				i++;
+			}
+			count++;
+			if (consumer != null) {
+				consumer.accept(unescaped != null ? unescaped.toString() : s.substring(start, i));
+			}
+			// a missing ')' is taken as if it was there
+			if (i >= length || s.charAt(i) == END) {
+				return count;
+			}
+			i++;
+		}
+	}
+}
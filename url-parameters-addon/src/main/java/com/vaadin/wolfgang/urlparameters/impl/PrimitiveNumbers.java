@@ -0,0 +1,229 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/*
+the parsing and writing of the primitive number converters: numbers are read digit by digit right out of the string,
+without substrings, boxing or exceptions for strings that are no numbers
+ */
+final class PrimitiveNumbers {
+	static final long[] EMPTY = new long[0];
+	private static final int INITIAL_CAPACITY = 16;
+
+	private PrimitiveNumbers() {
+	}
+
+	/**
+	 * Reads a string that is a single decimal number within the bounds, with an optional sign like Long.parseLong
+	 *
+	 * @return the cursor holding the number - failed if the whole string is no number within the bounds
+	 */
+	static Cursor parseNumber(CharSequence s, long min, long max) {
+		int length = s.length();
+		// a '+' is skipped, the '-' is read by the cursor - but not both
+		boolean plus = length > 1 && s.charAt(0) == '+' && s.charAt(1) != '-';
+		Cursor cursor = new Cursor(s, plus ? 1 : 0, length);
+		cursor.value = cursor.next(min, max);
+		if (cursor.position != length) {
+			cursor.failed = true;
+		}
+		return cursor;
+	}
+
+	/**
+	 * Reads a set of numbers in the form of the collection converters: "5", "(1,2,5)", ranges like "(1-3,5)"
+	 *
+	 * @param s   the string, may be null
+	 * @param min the smallest number allowed
+	 * @param max the largest number allowed
+	 * @return the distinct numbers in ascending order or null if the string is no set of numbers within the bounds or
+	 * expands to more than CompactEncoding.MAX_ELEMENTS numbers
+	 */
+	static long[] parseSet(CharSequence s, long min, long max) {
+		if (s == null || s.length() == 0) {
+			return EMPTY;
+		}
+		int start = 0;
+		int end = s.length();
+		if (s.charAt(0) == MultiValueTokenizer.BEGIN) {
+			start = 1;
+			// a missing ')' is taken as if it was there, like the tokenizer does
+			if (s.charAt(end - 1) == MultiValueTokenizer.END) {
+				end--;
+			}
+			if (start >= end) {
+				return EMPTY;
+			}
+		}
+		Cursor cursor = new Cursor(s, start, end);
+		long[] result = new long[INITIAL_CAPACITY];
+		int size = 0;
+		boolean sorted = true;
+		while (true) {
+			long first = cursor.next(min, max);
+			long last = first;
+			if (!cursor.failed && cursor.position < end && s.charAt(cursor.position) == CompactEncoding.RANGE_SEPARATOR) {
+				cursor.position++;
+				last = cursor.next(min, max);
+				if (last < first || last - first >= CompactEncoding.MAX_RANGE_LENGTH) {
+					return null;
+				}
+			}
+			if (cursor.failed) {
+				return null;
+			}
+			int length = (int) (last - first + 1);
+			// the ranges of a short string could add up to millions of numbers
+			if (size + length > CompactEncoding.MAX_ELEMENTS) {
+				return null;
+			}
+			if (size + length > result.length) {
+				result = Arrays.copyOf(result, Math.max(result.length * 2, size + length));
+			}
+			if (size > 0 && result[size - 1] >= first) {
+				sorted = false;
+			}
+			// counted by index, first + i cannot overflow where last is Long.MAX_VALUE
+			for (int i = 0; i < length; i++) {
+				result[size++] = first + i;
+			}
+			if (cursor.position == end) {
+				break;
+			}
+			if (s.charAt(cursor.position) != MultiValueTokenizer.SEPARATOR) {
+				return null;
+			}
+			cursor.position++;
+		}
+		return sorted ? Arrays.copyOf(result, size) : distinct(result, size);
+	}
+
+	/**
+	 * Sorts numbers and removes duplicates
+	 *
+	 * @return a new array of the distinct numbers in ascending order
+	 */
+	static long[] distinct(long[] numbers, int size) {
+		long[] result = numbers.length == size ? numbers.clone() : Arrays.copyOf(numbers, size);
+		Arrays.sort(result);
+		int count = 0;
+		for (int i = 0; i < result.length; i++) {
+			if (count == 0 || result[count - 1] != result[i]) {
+				result[count++] = result[i];
+			}
+		}
+		return count < result.length ? Arrays.copyOf(result, count) : result;
+	}
+
+	static boolean isSortedAndDistinct(int length, IntToLongFunction numbers) {
+		for (int i = 1; i < length; i++) {
+			if (numbers.applyAsLong(i - 1) >= numbers.applyAsLong(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes sorted distinct numbers in the form of the collection converters
+	 *
+	 * @param length  the number of numbers
+	 * @param numbers gets the number at an index
+	 * @param ranges  true to write three or more consecutive numbers as a range
+	 * @return the string form
+	 */
+	static String format(int length, IntToLongFunction numbers, boolean ranges) {
+		if (length == 0) {
+			return "";
+		}
+		if (length == 1) {
+			return Long.toString(numbers.applyAsLong(0));
+		}
+		StringBuilder result = new StringBuilder(length * 6 + 2);
+		result.append(MultiValueTokenizer.BEGIN);
+		int elements = 0;
+		int start = 0;
+		while (start < length) {
+			int end = start + 1;
+			if (ranges) {
+				while (end < length && numbers.applyAsLong(end) == numbers.applyAsLong(end - 1) + 1) {
+					end++;
+				}
+			}
+			if (start > 0) {
+				result.append(MultiValueTokenizer.SEPARATOR);
+			}
+			if (end - start >= 3) {
+				result.append(numbers.applyAsLong(start)).append(CompactEncoding.RANGE_SEPARATOR).append(numbers.applyAsLong(end - 1));
+				elements++;
+			} else {
+				result.append(numbers.applyAsLong(start));
+				for (int i = start + 1; i < end; i++) {
+					result.append(MultiValueTokenizer.SEPARATOR).append(numbers.applyAsLong(i));
+				}
+				elements += end - start;
+			}
+			start = end;
+		}
+		if (elements == 1) {
+			// a single range is written without parentheses, like any single element
+			return result.substring(1);
+		}
+		return result.append(MultiValueTokenizer.END).toString();
+	}
+
+	/*
+	reads one number after the other, like Long.parseLong but failing without an exception
+	 */
+	static final class Cursor {
+		private final CharSequence s;
+		private final int end;
+		private int position;
+		private boolean failed;
+		// the number read by parseNumber
+		private long value;
+
+		Cursor(CharSequence s, int start, int end) {
+			this.s = s;
+			this.position = start;
+			this.end = end;
+		}
+
+		boolean isFailed() {
+			return failed;
+		}
+
+		long getValue() {
+			return value;
+		}
+
+		long next(long min, long max) {
+			boolean negative = position < end && s.charAt(position) == '-';
+			if (negative) {
+				position++;
+			}
+			int digitsStart = position;
+			// accumulated negatively, the range of negative numbers is the larger one
+			long limit = negative ? min : -max;
+			long result = 0;
+			while (position < end) {
+				int digit = s.charAt(position) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				if (result < limit / 10 || result * 10 < limit + digit) {
+					failed = true;
+					return 0;
+				}
+				result = result * 10 - digit;
+				position++;
+			}
+			if (position == digitsStart || (negative && min >= 0)) {
+				failed = true;
+				return 0;
+			}
+			return negative ? result : -result;
+		}
+	}
+}
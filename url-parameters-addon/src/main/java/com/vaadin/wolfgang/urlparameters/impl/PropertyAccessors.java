@@ -0,0 +1,134 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * PropertyAccessors turns the read and write methods of bean properties into a Function and a BiConsumer that call the
+ * method directly, the way a lambda expression would. That is created once per property via the LambdaMetafactory.
+ * When the method cannot be bound that way (not accessible from here, loaded by a class loader the add-on does not see)
+ * the accessor falls back to reflection.
+ */
+@Slf4j
+public final class PropertyAccessors {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private PropertyAccessors() {
+	}
+
+	/**
+	 * Creates a getter for the given read method
+	 *
+	 * @param <T>        the type of the property
+	 * @param readMethod a method without arguments returning the property value
+	 * @return a function reading the property of the bean it is applied to
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Function<Object, T> getter(@NonNull Method readMethod) {
+		if (isBindable(readMethod)) {
+			try {
+				MethodHandle handle = LOOKUP.unreflect(readMethod);
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap());
+				return (Function<Object, T>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				log.debug("Falling back to reflection for {}: {}", readMethod, e.toString());
+			}
+		}
+		return reflectiveGetter(readMethod);
+	}
+
+	/**
+	 * Creates a setter for the given write method
+	 *
+	 * @param <T>         the type of the property
+	 * @param writeMethod a method taking the property value as its only argument
+	 * @return a consumer writing the value to the property of the bean
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BiConsumer<Object, T> setter(@NonNull Method writeMethod) {
+		if (isBindable(writeMethod)) {
+			try {
+				MethodHandle handle = LOOKUP.unreflect(writeMethod);
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+						MethodType.methodType(void.class, Object.class, Object.class), handle, handle.type().wrap().changeReturnType(void.class));
+				return (BiConsumer<Object, T>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				log.debug("Falling back to reflection for {}: {}", writeMethod, e.toString());
+			}
+		}
+		return reflectiveSetter(writeMethod);
+	}
+
+	/**
+	 * Creates a getter that calls the read method via reflection on every access
+	 *
+	 * @param <T>        the type of the property
+	 * @param readMethod a method without arguments returning the property value
+	 * @return a function reading the property of the bean it is applied to
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Function<Object, T> reflectiveGetter(@NonNull Method readMethod) {
+		return valueBean -> {
+			try {
+				return (T) readMethod.invoke(valueBean);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			} catch (InvocationTargetException e) {
+				throw unwrap(e);
+			}
+		};
+	}
+
+	/**
+	 * Creates a setter that calls the write method via reflection on every access
+	 *
+	 * @param <T>         the type of the property
+	 * @param writeMethod a method taking the property value as its only argument
+	 * @return a consumer writing the value to the property of the bean
+	 */
+	public static <T> BiConsumer<Object, T> reflectiveSetter(@NonNull Method writeMethod) {
+		return (valueBean, value) -> {
+			try {
+				writeMethod.invoke(valueBean, value);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			} catch (InvocationTargetException e) {
+				throw unwrap(e);
+			}
+		};
+	}
+
+	private static RuntimeException unwrap(InvocationTargetException e) {
+		Throwable target = e.getTargetException();
+		if (target instanceof Error) {
+			throw (Error) target;
+		}
+		if (target instanceof RuntimeException) {
+			return (RuntimeException) target;
+		}
+		return new RuntimeException(target);
+	}
+
+	/*
+	the generated class resolves the declaring class through the class loader of the add-on
+	 */
+	private static boolean isBindable(Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		try {
+			return Class.forName(declaringClass.getName(), false, PropertyAccessors.class.getClassLoader()) == declaringClass;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+}
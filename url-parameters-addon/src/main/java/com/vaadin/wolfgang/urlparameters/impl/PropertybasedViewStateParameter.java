@@ -3,21 +3,29 @@ package com.vaadin.wolfgang.urlparameters.impl;
 import com.vaadin.wolfgang.urlparameters.Converter;
 import com.vaadin.wolfgang.urlparameters.ViewParameter;
 import com.vaadin.wolfgang.urlparameters.ViewStateParameter;
+import com.vaadin.wolfgang.urlparameters.ViewStateParameterValue;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 @Slf4j
 public class PropertybasedViewStateParameter<T> extends ViewStateParameter<T> {
-	private PropertyDescriptor propertyDescriptor;
+	private final PropertyDescriptor propertyDescriptor;
+	private final Function<Object, T> getter;
+	private final BiConsumer<Object, T> setter;
 
 	public PropertybasedViewStateParameter(@NonNull String viewName, @NonNull ViewParameter viewParameter, @NonNull PropertyDescriptor propertyDescriptor, @NonNull Converter converter) {
 		super(viewName, viewParameter, converter);
 		this.propertyDescriptor = propertyDescriptor;
+		Method readMethod = propertyDescriptor.getReadMethod();
+		getter = readMethod != null ? PropertyAccessors.getter(readMethod) : null;
+		Method writeMethod = propertyDescriptor.getWriteMethod();
+		setter = writeMethod != null ? PropertyAccessors.setter(writeMethod) : null;
 	}
 
 	@Override
@@ -26,40 +34,24 @@ public class PropertybasedViewStateParameter<T> extends ViewStateParameter<T> {
 	}
 
 	@Override
-	public boolean setValue(T value, Object valueBean, boolean notify) {
-		boolean changed = super.setValue(value, valueBean, notify);
-		if (changed || notify) {
-			Method writeMethod = propertyDescriptor.getWriteMethod();
-			try {
-				if (writeMethod != null) {
-					writeMethod.invoke(valueBean, value);
-				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			} catch (InvocationTargetException e) {
-				throw new RuntimeException(e.getTargetException());
-			}
+	public boolean setValue(@NonNull ViewStateParameterValue<T> parameterValue, T value, Object valueBean, boolean notify) {
+		boolean changed = super.setValue(parameterValue, value, valueBean, notify);
+		if ((changed || notify) && setter != null) {
+			setter.accept(valueBean, value);
 		}
 		return changed;
 	}
 
 	@Override
-	public T getValue(Object valueBean) {
-		Method readMethod = propertyDescriptor.getReadMethod();
-		try {
-			if (readMethod != null) {
-				T result = (T) readMethod.invoke(valueBean);
-				if (!Objects.equals(result, super.getValue(valueBean))) {
-					setValue(result, valueBean, false);
-				}
-				return result;
-			} else {
-				return super.getValue(valueBean);
+	public T getValue(@NonNull ViewStateParameterValue<T> parameterValue, Object valueBean) {
+		if (getter != null) {
+			T result = getter.apply(valueBean);
+			if (!Objects.deepEquals(result, super.getValue(parameterValue, valueBean))) {
+				setValue(parameterValue, result, valueBean, false);
 			}
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		} catch (InvocationTargetException e) {
-			throw new RuntimeException(e.getTargetException());
+			return result;
+		} else {
+			return super.getValue(parameterValue, valueBean);
 		}
 	}
 }
@@ -0,0 +1,79 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.Converter;
+import com.vaadin.wolfgang.urlparameters.ParameterRegistry;
+import com.vaadin.wolfgang.urlparameters.ViewMethodParameter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+
+/**
+ * The RegistryParameterFactory takes the annotated classes from the ParameterRegistry services generated at compile time
+ * instead of scanning the classpath. Add the url-parameters-processor artifact to the compile classpath of the module
+ * containing the views to have the registry generated.
+ * When there is no registry on the classpath it falls back to scanning like the ClasspathParameterFactory.
+ */
+@Slf4j
+public class RegistryParameterFactory extends ClasspathParameterFactory {
+
+	/**
+	 * Instantiates a new registry based parameter factory - or a scanning one if there is no registry at all.
+	 *
+	 * @param packageHint         only classes in this package (or below) are considered
+	 * @param nameAnnotationClass the annotation that carries the name of a view
+	 * @param nameKey             the attribute of the annotation that holds the name
+	 * @param converters          the converters to be used
+	 * @return the parameter factory
+	 */
+	public static ClasspathParameterFactory create(@NonNull String packageHint, @NonNull Class<? extends Annotation> nameAnnotationClass, @NonNull String nameKey, Map<String, Converter> converters) {
+		List<ParameterRegistry> registries = loadRegistries(Thread.currentThread().getContextClassLoader());
+		if (registries.isEmpty()) {
+			log.info("No generated parameter registry found - scanning the classpath for package {}", packageHint);
+			return new ClasspathParameterFactory(packageHint, nameAnnotationClass, nameKey, converters);
+		}
+		return new RegistryParameterFactory(registries, packageHint, nameAnnotationClass, nameKey, converters);
+	}
+
+	public RegistryParameterFactory(@NonNull Collection<ParameterRegistry> registries, @NonNull String packageHint, @NonNull Class<? extends Annotation> nameAnnotationClass, @NonNull String nameKey, Map<String, Converter> converters) {
+		super(converters);
+		for (ParameterRegistry registry : registries) {
+			ClassLoader classLoader = registry.getClass().getClassLoader();
+			forEachClass(registry.getParameterClassNames(), packageHint, classLoader, this::registerParameterClass);
+			forEachClass(registry.getMethodParameterClassNames(), packageHint, classLoader, declaringClass -> {
+				for (Method method : declaringClass.getDeclaredMethods()) {
+					if (method.isAnnotationPresent(ViewMethodParameter.class)) {
+						registerMethodParameter(method);
+					}
+				}
+			});
+			forEachClass(registry.getViewNameClassNames(), packageHint, classLoader, viewClass -> registerViewName(viewClass, nameAnnotationClass, nameKey));
+		}
+		initialise();
+	}
+
+	private static List<ParameterRegistry> loadRegistries(ClassLoader classLoader) {
+		List<ParameterRegistry> result = new ArrayList<>();
+		ServiceLoader.load(ParameterRegistry.class, classLoader).forEach(result::add);
+		return result;
+	}
+
+	private static void forEachClass(Collection<String> classNames, String packageHint, ClassLoader classLoader, Consumer<Class<?>> consumer) {
+		for (String className : classNames) {
+			if (className.startsWith(packageHint)) {
+				try {
+					consumer.accept(Class.forName(className, false, classLoader));
+				} catch (ClassNotFoundException e) {
+					throw new IllegalStateException("The generated parameter registry refers to a missing class - recompile the module declaring " + className, e);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import com.google.inject.internal.MoreTypes;
+import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.EnumValueConverter;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Type;
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ConverterRegistryTest {
+	private static final Converter MONTH = new EnumValueConverter<>(Month.class);
+	private static final Converter MONTHS = new CollectionValueConverter<>(new EnumValueConverter<>(Month.class), ArrayList.class);
+	private static final Converter DAYS = new CollectionValueConverter<>(new EnumValueConverter<>(DayOfWeek.class), HashSet.class);
+
+	private static ConverterRegistry createRegistry() {
+		Map<String, Converter> converters = new HashMap<>();
+		converters.put("month", MONTH);
+		converters.put("months", MONTHS);
+		converters.put("days", DAYS);
+		return new ConverterRegistry(converters);
+	}
+
+	@DataProvider
+	private Object[][] types() {
+		return new Object[][]{
+				{Month.class, MONTH},
+				{type(ArrayList.class, Month.class), MONTHS},
+				{type(List.class, Month.class), MONTHS},
+				{type(AbstractList.class, Month.class), MONTHS},
+				{type(Collection.class, Month.class), MONTHS},
+				{type(Set.class, DayOfWeek.class), DAYS},
+				{type(Collection.class, DayOfWeek.class), DAYS},
+				{type(Set.class, Month.class), null},
+				{DayOfWeek.class, null},
+				{ArrayList.class, null}
+		};
+	}
+
+	@Test(dataProvider = "types")
+	public void resolveTest(Type type, Converter expected) {
+		ConverterRegistry candidate = createRegistry();
+
+		Assert.assertSame(candidate.getConverter(type), expected);
+		Assert.assertSame(candidate.getConverter(type), expected, "cached result differs");
+	}
+
+	@Test
+	public void resolvedOnceTest() {
+		int[] calls = new int[1];
+		Map<String, Converter> converters = new HashMap<>();
+		converters.put("counting", new EnumValueConverter<Month>(Month.class) {
+			@Override
+			public boolean converts(Type valueClass) {
+				calls[0]++;
+				return false;
+			}
+		});
+		ConverterRegistry candidate = new ConverterRegistry(converters);
+
+		Assert.assertNull(candidate.getConverter(String.class));
+		Assert.assertNull(candidate.getConverter(String.class));
+		Assert.assertEquals(calls[0], 1, "negative result not cached");
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void duplicateTest() {
+		Map<String, Converter> converters = new HashMap<>();
+		converters.put("one", MONTH);
+		converters.put("two", new EnumValueConverter<>(Month.class));
+		new ConverterRegistry(converters);
+	}
+
+	private static Type type(Class<?> rawType, Type argument) {
+		return new MoreTypes.ParameterizedTypeImpl(null, rawType, argument);
+	}
+}
@@ -0,0 +1,66 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class FragmentCodecTest {
+	@DataProvider
+	private Object[][] values() {
+		return new Object[][]{
+				{"plain"},
+				{""},
+				{"a&b=c/d"},
+				{"100%"},
+				{"%41 stays"},
+				{"#hash"},
+				{"äöü&ß"},
+				{"1,2,3"}
+		};
+	}
+
+	@Test(dataProvider = "values")
+	public void roundTripTest(String value) {
+		FragmentCodec candidate = new FragmentCodec();
+		FragmentCodec.Parameters parameters = candidate.borrow();
+		parameters.put("key", value);
+		parameters.put("other", "x");
+		String fragment = candidate.format("view", parameters);
+		candidate.release(parameters);
+
+		Assert.assertEquals(FragmentCodec.getViewName(fragment), "view");
+		FragmentCodec.Parameters parsed = candidate.parse(fragment.substring(fragment.indexOf('/') + 1));
+		Assert.assertEquals(parsed.get("key"), value.isEmpty() ? null : value);
+		Assert.assertEquals(parsed.get("other"), "x");
+	}
+
+	@Test
+	public void orderTest() {
+		FragmentCodec candidate = new FragmentCodec();
+		FragmentCodec.Parameters parameters = candidate.parse("zeta=1&alpha=2&mu=3&alpha=4&flag");
+
+		Assert.assertEquals(parameters.size(), 4);
+		Assert.assertEquals(parameters.get("alpha"), "4");
+		Assert.assertEquals(parameters.get("flag"), "");
+		Assert.assertNull(parameters.get("missing"));
+		Assert.assertEquals(candidate.format("view", parameters), "view/alpha=4&mu=3&zeta=1");
+		Assert.assertEquals(candidate.format(null, parameters), "alpha=4&mu=3&zeta=1");
+	}
+
+	@Test
+	public void decodeTest() {
+		Assert.assertEquals(FragmentCodec.decode("a%3Db%C3%A4%2", 0, 13), "a=bä%2");
+		Assert.assertEquals(FragmentCodec.decode("xx%26yy", 2, 5), "&");
+	}
+
+	@Test
+	public void nestedBorrowTest() {
+		FragmentCodec candidate = new FragmentCodec();
+		FragmentCodec.Parameters outer = candidate.borrow();
+		FragmentCodec.Parameters inner = candidate.borrow();
+
+		Assert.assertNotSame(outer, inner);
+		candidate.release(inner);
+		Assert.assertSame(candidate.borrow(), inner);
+	}
+}
@@ -0,0 +1,111 @@
+package com.vaadin.wolfgang.urlparameters;
+
+import com.vaadin.wolfgang.urlparameters.impl.ClasspathParameterFactory;
+import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.EnumValueConverter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class ViewStateParameterFactoryTest {
+	private static final int THREADS = 8;
+	private static final int ITERATIONS = 2_000;
+	private static final List<String> VIEW_NAMES = Arrays.asList("batch", "counting", "defaulted", "simple", "naked", null);
+
+	private static ParameterFactory createParameterFactory() {
+		Map<String, Converter> converters = new HashMap<>();
+		converters.put("propertyconverter", new ViewStateParametersTest.PropertyConverter());
+		converters.put("hubertconverter", new ViewStateParametersTest.HubertConverter());
+		converters.put("multiEnumConverter", new CollectionValueConverter(new EnumValueConverter(ViewStateParametersTest.MyEnum.class), ArrayList.class));
+		return new ClasspathParameterFactory("com.vaadin.wolfgang.urlparameters", ViewName.class, "value", converters);
+	}
+
+	@Test
+	public void testConcurrentLazyCreation() throws Exception {
+		ViewStateParameterFactory candidate = new ViewStateParameterFactory(createParameterFactory());
+		Map<String, Set<Collection<ViewStateParameter>>> parametersByView = new ConcurrentHashMap<>();
+		Map<ViewStateParameter, Set<ViewStateParameterValue>> valuesByParameter = new ConcurrentHashMap<>();
+		runConcurrently(() -> {
+			for (int i = 0; i < ITERATIONS; i++) {
+				String viewName = VIEW_NAMES.get(ThreadLocalRandom.current().nextInt(VIEW_NAMES.size()));
+				Collection<ViewStateParameter> parameters = candidate.getViewStateParameters(viewName);
+				parametersByView.computeIfAbsent(String.valueOf(viewName), name -> identitySet()).add(parameters);
+				for (ViewStateParameter parameter : parameters) {
+					valuesByParameter.computeIfAbsent(parameter, p -> identitySet()).add(candidate.getParameterValue(parameter));
+				}
+			}
+		});
+
+		Assert.assertEquals(parametersByView.keySet().size(), VIEW_NAMES.size());
+		parametersByView.forEach((viewName, instances) -> Assert.assertEquals(instances.size(), 1, viewName));
+		Assert.assertTrue(candidate.getViewStateParameters(null).isEmpty());
+		Assert.assertEquals(candidate.getViewStateParameters("batch").size(), 2);
+		Assert.assertFalse(valuesByParameter.isEmpty());
+		valuesByParameter.forEach((parameter, instances) -> Assert.assertEquals(instances.size(), 1, parameter.getParameterName()));
+	}
+
+	@Test
+	public void testConcurrentValueAccess() throws Exception {
+		ViewStateParameterFactory candidate = new ViewStateParameterFactory(createParameterFactory());
+		ViewStateParameter<Object> parameter = candidate.getViewStateParameters("batch").iterator().next();
+		ViewStateParameterValue<Object> value = candidate.getParameterValue(parameter);
+		List<String> sources = Arrays.asList("first", "second", "third");
+		runConcurrently(() -> {
+			for (int i = 0; i < ITERATIONS; i++) {
+				String source = sources.get(ThreadLocalRandom.current().nextInt(sources.size()));
+				value.setStringValue(source, source.toUpperCase());
+				String remembered = value.getStringValue(source);
+				// another thread may have replaced the string, but never with the one of another source
+				Assert.assertTrue(remembered == null || remembered.equals(source.toUpperCase()), remembered);
+
+				value.setValue(source);
+				Assert.assertTrue(sources.contains(value.getValue()));
+			}
+		});
+		Assert.assertTrue(sources.contains(value.getValue()));
+	}
+
+	private static <T> Set<T> identitySet() {
+		return Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+
+	/*
+	runs the task on all threads at the same time, rethrowing the first failure
+	 */
+	private static void runConcurrently(Runnable task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					task.run();
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
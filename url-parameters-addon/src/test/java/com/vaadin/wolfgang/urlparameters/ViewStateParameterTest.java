@@ -4,6 +4,7 @@ import com.vaadin.spring.annotation.SpringView;
 import com.vaadin.wolfgang.urlparameters.impl.ClasspathParameterFactory;
 import com.vaadin.wolfgang.urlparameters.impl.ConfigurationbasedViewStateParameter;
 import com.vaadin.wolfgang.urlparameters.impl.EnumValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.LongArrayConverter;
 import com.vaadin.wolfgang.urlparameters.impl.PropertybasedViewStateParameter;
 import org.apache.commons.collections4.MultiValuedMap;
 import org.springframework.beans.BeansException;
@@ -15,9 +16,13 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class ViewStateParameterTest {
 	private StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
@@ -65,6 +70,36 @@ public class ViewStateParameterTest {
 		}
 	}
 
+	public static class CountingLongConverter extends LongConverter {
+		private int conversions;
+
+		@Override
+		public String getStringRepresentation(Long o) {
+			conversions++;
+			return super.getStringRepresentation(o);
+		}
+	}
+
+	public static class CountingListConverter implements Converter<List<Integer>> {
+		private int conversions;
+
+		@Override
+		public Class<List<Integer>> getInternalClass() {
+			return (Class) List.class;
+		}
+
+		@Override
+		public List<Integer> getInternalObject(String stringRepresentation) {
+			return Arrays.stream(stringRepresentation.split(",")).map(Integer::valueOf).collect(Collectors.toList());
+		}
+
+		@Override
+		public String getStringRepresentation(List<Integer> o) {
+			conversions++;
+			return o.stream().map(String::valueOf).collect(Collectors.joining(","));
+		}
+	}
+
 	@BeforeClass
 	private void initMocks() throws IllegalAccessException, InstantiationException {
 		for (Object[] row : okConfigs()) {
@@ -127,6 +162,101 @@ public class ViewStateParameterTest {
 		Assert.assertTrue(givenClassIdentified, "given class " + clazz + " not identified");
 	}
 
+	@Test
+	public void testParametersSharedValuesPerFactory() {
+		ClasspathParameterFactory parameterFactory = new ClasspathParameterFactory("com.vaadin.wolfgang.urlparameters", OkViewName.class, "value", CONVERTERS);
+		ViewStateParameterFactory first = new ViewStateParameterFactory(parameterFactory);
+		ViewStateParameterFactory second = new ViewStateParameterFactory(parameterFactory);
+		Collection<ViewStateParameter> parameters = first.getViewStateParameters("seven");
+		Assert.assertSame(second.getViewStateParameters("seven"), parameters, "parameters must be shared");
+		ViewStateParameter parameter = parameters.iterator().next();
+		Assert.assertSame(first.getParameterValue(parameter), first.getParameterValue(parameter), "value must be kept");
+		Assert.assertNotSame(second.getParameterValue(parameter), first.getParameterValue(parameter), "values must not be shared");
+	}
+
+	@Test
+	public void testStringValueConvertedOnlyWhenChanged() {
+		CountingLongConverter converter = new CountingLongConverter();
+		ViewParameter viewParameter = WithConfiguration.class.getAnnotation(ViewParameters.class).value()[0];
+		ViewStateParameter<Long> parameter = new ConfigurationbasedViewStateParameter<>("five", viewParameter, converter);
+		ViewStateParameterValue<Long> parameterValue = new ViewStateParameterValue<>();
+		parameter.setValue(parameterValue, 1000L, null, false);
+
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "1000");
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "1000");
+		Assert.assertEquals(converter.conversions, 1, "unchanged value converted again");
+		parameter.setValue(parameterValue, Long.valueOf("1000"), null, false);
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "1000");
+		Assert.assertEquals(converter.conversions, 1, "equal value converted again");
+		parameter.setValue(parameterValue, 1001L, null, false);
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "1001");
+		Assert.assertEquals(converter.conversions, 2);
+	}
+
+	@Test
+	public void testCollectionConvertedOnlyWhenChanged() {
+		CountingListConverter converter = new CountingListConverter();
+		ViewParameter viewParameter = WithConfiguration.class.getAnnotation(ViewParameters.class).value()[0];
+		ViewStateParameter<List<Integer>> parameter = new ConfigurationbasedViewStateParameter<>("five", viewParameter, converter);
+		ViewStateParameterValue<List<Integer>> parameterValue = new ViewStateParameterValue<>();
+		List<Integer> value = new ArrayList<>(Arrays.asList(1, 4));
+		parameter.setValue(parameterValue, value, null, false);
+
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "1,4");
+		// the same instance - a cache keyed by identity would miss the change
+		value.set(0, 2);
+		value.set(1, 3);
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "2,3", "value modified in place not converted");
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "2,3");
+		Assert.assertEquals(converter.conversions, 2, "unchanged collection converted again");
+		value.add(5);
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "2,3,5", "element added in place not converted");
+		parameter.setValue(parameterValue, new ArrayList<>(value), null, false);
+		Assert.assertEquals(parameter.getStringValue(parameterValue, null), "2,3,5");
+		Assert.assertEquals(converter.conversions, 4, "another instance must be converted");
+	}
+
+	@Test
+	public void testCollectionOfMutableElementsNotRemembered() {
+		ViewStateParameterValue<List<Object>> parameterValue = new ViewStateParameterValue<>();
+		List<Object> mutable = Arrays.asList(1, new ArrayList<>());
+		parameterValue.setStringValue(mutable, "1,");
+		Assert.assertNull(parameterValue.getStringValue(mutable));
+		List<Object> immutable = Arrays.asList(1, "2");
+		parameterValue.setStringValue(immutable, "1,2");
+		Assert.assertEquals(parameterValue.getStringValue(immutable), "1,2");
+		Assert.assertNull(parameterValue.getStringValue(Arrays.asList(1, "2")), "another instance is converted again");
+	}
+
+	@Test
+	public void testOnlyImmutableDefaultValueShared() {
+		ViewParameter viewParameter = DefaultValueAnnotation.class.getAnnotation(ViewParameter.class);
+		ViewStateParameter<Integer> immutable = new ConfigurationbasedViewStateParameter<>("eight", viewParameter, new IntConverter());
+		Assert.assertEquals(immutable.getDefaultInternalValue(), Integer.valueOf(1640));
+		Assert.assertSame(immutable.getDefaultInternalValue(), immutable.getDefaultInternalValue());
+
+		ViewStateParameter<List<Integer>> mutable = new ConfigurationbasedViewStateParameter<>("eight", viewParameter, new CountingListConverter());
+		List<Integer> first = mutable.getDefaultInternalValue();
+		first.add(1641);
+		Assert.assertEquals(mutable.getDefaultInternalValue(), Arrays.asList(1640), "modified default shared");
+		Assert.assertNotSame(mutable.getDefaultInternalValue(), mutable.getDefaultInternalValue());
+	}
+
+	@Test
+	public void testArrayValuesComparedByContent() {
+		ViewParameter viewParameter = ArrayDefaultValueAnnotation.class.getAnnotation(ViewParameter.class);
+		ViewStateParameter<long[]> parameter = new ConfigurationbasedViewStateParameter<>("nine", viewParameter, new LongArrayConverter());
+		ViewStateParameterValue<long[]> parameterValue = new ViewStateParameterValue<>();
+		Assert.assertTrue(parameter.setValue(parameterValue, new long[]{1, 2, 3}, null, false));
+		Assert.assertFalse(parameter.setValue(parameterValue, new long[]{1, 2, 3}, null, false), "equal array taken as changed");
+		Assert.assertTrue(parameter.setValue(parameterValue, new long[]{1, 2}, null, false));
+
+		long[] defaultValue = parameter.getDefaultInternalValue();
+		Assert.assertEquals(defaultValue, new long[]{1, 2, 3});
+		defaultValue[0] = 7;
+		Assert.assertEquals(parameter.getDefaultInternalValue(), new long[]{1, 2, 3}, "modified default shared");
+	}
+
 	@Test(dataProvider = "nokConfigs", expectedExceptions = ViewStateParameterFactory.ConfigurationException.class)
 	public void testCreateInstanceFail(Class clazz) throws Exception {
 		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
@@ -213,6 +343,10 @@ public class ViewStateParameterTest {
 	public static class DefaultValueAnnotation {
 	}
 
+	@ViewParameter(value = "longs", valueClass = long[].class, defaultValue = "1,2,3")
+	public static class ArrayDefaultValueAnnotation {
+	}
+
 	// N-OK-configurations
 	@SpringView(name = "eight")
 	@ViewParameters({
@@ -3,13 +3,17 @@ package com.vaadin.wolfgang.urlparameters;
 import com.vaadin.navigator.NavigationStateManager;
 import com.vaadin.navigator.Navigator;
 import com.vaadin.navigator.View;
+import com.vaadin.navigator.ViewChangeListener;
 import com.vaadin.navigator.ViewProvider;
+import com.vaadin.shared.Registration;
 import com.vaadin.spring.navigator.SpringNavigator;
 import com.vaadin.wolfgang.urlparameters.impl.ClasspathParameterFactory;
 import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.ConversionExecutors;
 import com.vaadin.wolfgang.urlparameters.impl.EnumValueConverter;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Value;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ObjectFactory;
@@ -20,12 +24,17 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 //import static org.mockito.Mockito.mock;
 //import static org.mockito.Mockito.when;
 
 public class ViewStateParametersTest {
+	private ParameterFactory parameterFactory;
 	private Navigator navigator;
 	private ViewStateParameters candidate;
 	private static final Property STATIC_PROPERTY = new Property();
@@ -43,6 +52,12 @@ public class ViewStateParametersTest {
 		VIEWS.put("doublegetter", new DGetter());
 		VIEWS.put("multisetter", new MultiSetter());
 		VIEWS.put("multisetter2", new MultiSetter2());
+		VIEWS.put("batch", new Batch());
+		VIEWS.put("defaulted", new Defaulted());
+		VIEWS.put("counting", new Counting());
+		VIEWS.put("notified", new Notified());
+		VIEWS.put("cyclic", new Cyclic());
+		VIEWS.put("waiting", new Waiting());
 	}
 
 	public enum MyEnum {
@@ -78,13 +93,18 @@ public class ViewStateParametersTest {
 				put("hubertconverter", new HubertConverter());
 				put("multiEnumConverter", new CollectionValueConverter(new EnumValueConverter(MyEnum.class), ArrayList.class));
 				put("otherMultiEnumConverter", new CollectionValueConverter(new EnumValueConverter(MyOtherEnum.class), ArrayList.class));
+				put("slowconverter", new SlowConverter());
 			}
 		};
-		ParameterFactory parameterFactory1 = new ClasspathParameterFactory("com.vaadin.wolfgang.urlparameters", ViewName.class, "value", converters);
+		this.parameterFactory = new ClasspathParameterFactory("com.vaadin.wolfgang.urlparameters", ViewName.class, "value", converters);
 //		ViewStateParameterFactory.ParameterFactory parameterFactory1 = new SpringParameterFactory(beanFactory, parameterFactory);
 
-		ViewStateParameterFactory viewStateParameterFactory = new ViewStateParameterFactory(parameterFactory1);
+		ViewStateParameterFactory viewStateParameterFactory = new ViewStateParameterFactory(this.parameterFactory);
+		navigator = newNavigator();
+		candidate = new ViewStateParameters(viewStateParameterFactory, navigator);
+	}
 
+	private static Navigator newNavigator() {
 		NavigationStateManager navigationStateManager = new NavigationStateManager() {
 			@Getter
 			@Setter
@@ -93,7 +113,7 @@ public class ViewStateParametersTest {
 			private Navigator navigator;
 		};
 
-		navigator = new SpringNavigator(/*welcomeViewSelector, uiEventBus, eventPublisher*/) {
+		Navigator navigator = new SpringNavigator(/*welcomeViewSelector, uiEventBus, eventPublisher*/) {
 
 			@Override
 			protected NavigationStateManager getStateManager() {
@@ -112,7 +132,7 @@ public class ViewStateParametersTest {
 				return VIEWS.get(s);
 			}
 		});
-		candidate = new ViewStateParameters(viewStateParameterFactory, navigator);
+		return navigator;
 	}
 
 	@DataProvider
@@ -198,6 +218,192 @@ public class ViewStateParametersTest {
 //		Assert.assertEquals(candidateString, expectedParamString);
 	}
 
+	@Test
+	public void testBatchNavigatesOnce() {
+		navigator.navigateTo("batch");
+		int[] navigations = new int[1];
+		Registration registration = navigator.addViewChangeListener(new ViewChangeListener() {
+			@Override
+			public boolean beforeViewChange(ViewChangeEvent event) {
+				return true;
+			}
+
+			@Override
+			public void afterViewChange(ViewChangeEvent event) {
+				navigations[0]++;
+			}
+		});
+		try {
+			candidate.batch(() -> {
+				candidate.putElement(Property.class, STATIC_PROPERTY);
+				candidate.batch(() -> candidate.putElement(Hubert.class, new Hubert()));
+				Assert.assertEquals(navigations[0], 0, "navigated within batch");
+			});
+		} finally {
+			registration.remove();
+		}
+
+		Assert.assertEquals(navigations[0], 1);
+		Assert.assertEquals(navigator.getState(), "batch/" + HUBERT_PARAM + "&" + PROPERTY_PARAM);
+	}
+
+	@Test
+	public void testOwnNavigationFiresChangedParametersOnly() {
+		Counting view = (Counting) VIEWS.get("counting");
+		navigator.navigateTo("counting/" + HUBERT_PARAM);
+		Assert.assertEquals(view.hubertCalls, 1);
+		Assert.assertEquals(view.propertyCalls, 1);
+		candidate.putElement(Property.class, STATIC_PROPERTY);
+		// the setter of the changed parameter is called by putElement, the navigation that follows fires nothing
+		Assert.assertEquals(view.propertyCalls, 2);
+		Assert.assertEquals(view.hubertCalls, 1);
+		Assert.assertEquals(navigator.getState(), "counting/" + HUBERT_PARAM + "&" + PROPERTY_PARAM);
+		// other navigations still fire every parameter
+		navigator.navigateTo("counting/" + HUBERT_PARAM);
+		Assert.assertEquals(view.propertyCalls, 3);
+		Assert.assertEquals(view.hubertCalls, 2);
+	}
+
+	@Test
+	public void testChangedParametersFiredInDependencyOrder() {
+		Notified view = (Notified) VIEWS.get("notified");
+		candidate.setFiringMode(ViewStateParameters.FiringMode.CHANGED);
+		try {
+			navigator.navigateTo("naked");
+			navigator.navigateTo("notified/enums=ONE&" + PROPERTY_PARAM);
+			// enums depends on property, it is set after it
+			Assert.assertEquals(view.calls, Arrays.asList("property", "enums"));
+			Assert.assertEquals(view.changes, Collections.singletonList(new LinkedHashSet<>(Arrays.asList("property", "enums"))));
+			view.reset();
+			navigator.navigateTo("notified/enums=TWO&" + PROPERTY_PARAM);
+			Assert.assertEquals(view.calls, Collections.singletonList("enums"));
+			Assert.assertEquals(view.changes, Collections.singletonList(Collections.singleton("enums")));
+			view.reset();
+			navigator.navigateTo("naked");
+			navigator.navigateTo("notified/enums=TWO&" + PROPERTY_PARAM);
+			Assert.assertEquals(view.calls, Collections.emptyList());
+			Assert.assertEquals(view.changes, Collections.emptyList());
+		} finally {
+			candidate.setFiringMode(ViewStateParameters.FiringMode.ALL);
+			view.reset();
+		}
+		navigator.navigateTo("naked");
+		navigator.navigateTo("notified/enums=TWO&" + PROPERTY_PARAM);
+		// all parameters are fired, the view is not told about changes as there are none
+		Assert.assertEquals(view.calls, Arrays.asList("property", "enums"));
+		Assert.assertEquals(view.changes, Collections.emptyList());
+	}
+
+	@Test
+	public void testParallelConversion() {
+		Counting counting = (Counting) VIEWS.get("counting");
+		Notified notified = (Notified) VIEWS.get("notified");
+		ExecutorService pool = ConversionExecutors.bounded(2);
+		// the conversions pass the barrier only when they run at the same time
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+		candidate.setParallelConversionExecutor(task -> pool.execute(() -> {
+			threads.add(Thread.currentThread().getName());
+			try {
+				barrier.await(5, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			task.run();
+		}));
+		try {
+			navigator.navigateTo("naked");
+			int propertyCalls = counting.propertyCalls;
+			int hubertCalls = counting.hubertCalls;
+			navigator.navigateTo("counting/" + HUBERT_PARAM + "&" + PROPERTY_PARAM);
+			Assert.assertEquals(counting.propertyCalls, propertyCalls + 1);
+			Assert.assertEquals(counting.hubertCalls, hubertCalls + 1);
+			Assert.assertEquals(threads.size(), 2);
+			Assert.assertFalse(threads.contains(Thread.currentThread().getName()));
+			Assert.assertEquals(candidate.getElement(Property.class), STATIC_PROPERTY);
+
+			// enums is converted at the same time as property it depends on, it is set after it nevertheless
+			notified.reset();
+			threads.clear();
+			navigator.navigateTo("notified/enums=THREE&" + PROPERTY_PARAM);
+			Assert.assertEquals(threads.size(), 2);
+			Assert.assertEquals(notified.calls, Arrays.asList("property", "enums"));
+		} finally {
+			candidate.setParallelConversionExecutor(null);
+			notified.reset();
+			pool.shutdownNow();
+		}
+	}
+
+	@Test(expectedExceptions = ViewStateParameterFactory.ParameterDependencyException.class)
+	public void testCyclicDependencyRejected() {
+		navigator.navigateTo("cyclic");
+	}
+
+	@Test
+	public void testAsyncParametersAppliedViaUIAccess() {
+		List<Runnable> conversions = new ArrayList<>();
+		List<Runnable> uiCommands = new ArrayList<>();
+		Navigator asyncNavigator = newNavigator();
+		ViewStateParameters async = new ViewStateParameters(new ViewStateParameterFactory(parameterFactory), asyncNavigator) {
+			@Override
+			protected Executor getUIExecutor() {
+				return uiCommands::add;
+			}
+		};
+		async.setConversionExecutor(conversions::add);
+		Waiting view = (Waiting) VIEWS.get("waiting");
+		asyncNavigator.navigateTo("waiting/slow=a&" + HUBERT_PARAM + "&" + PROPERTY_PARAM);
+		// hubert depends on slow, it waits for it
+		Assert.assertEquals(view.calls, Collections.singletonList("property"));
+		Assert.assertEquals(view.pending, Collections.singletonList(new LinkedHashSet<>(Arrays.asList("slow", "hubert"))));
+		Assert.assertEquals(view.changes, Collections.singletonList(Collections.singleton("property")));
+		Assert.assertNull(async.getElement(Slow.class));
+		Assert.assertEquals(uiCommands.size(), 0);
+		conversions.forEach(Runnable::run);
+		// the results are applied via the UI only
+		Assert.assertEquals(view.calls, Collections.singletonList("property"));
+		Assert.assertEquals(uiCommands.size(), 1);
+		uiCommands.forEach(Runnable::run);
+		Assert.assertEquals(view.calls, Arrays.asList("property", "slow", "hubert"));
+		Assert.assertEquals(view.changes.get(1), new LinkedHashSet<>(Arrays.asList("slow", "hubert")));
+		Assert.assertEquals(async.getElement(Slow.class), new Slow("a"));
+
+		view.reset();
+		conversions.clear();
+		uiCommands.clear();
+		asyncNavigator.navigateTo("waiting/slow=b");
+		asyncNavigator.navigateTo("waiting/slow=c");
+		conversions.forEach(Runnable::run);
+		uiCommands.forEach(Runnable::run);
+		// the conversion of b was replaced by the one of c
+		Assert.assertEquals(view.slows, Collections.singletonList(new Slow("c")));
+		Assert.assertEquals(async.getElement(Slow.class), new Slow("c"));
+	}
+
+	@DataProvider
+	private Object[][] unconvertibleData() {
+		return new Object[][]{
+				{"defaulted/enums=THREE", Collections.singletonList(MyEnum.THREE)},
+				{"defaulted/enums=GARBAGE", Collections.singletonList(MyEnum.TWO)},
+				{"defaulted/enums=(ONE,GARBAGE)", Collections.singletonList(MyEnum.TWO)},
+				{"defaulted", Collections.singletonList(MyEnum.TWO)},
+		};
+	}
+
+	@Test(dataProvider = "unconvertibleData")
+	public void testUnconvertibleValueFallsBackToDefault(String url, Collection<MyEnum> expected) {
+		Defaulted view = (Defaulted) VIEWS.get("defaulted");
+		navigator.navigateTo("naked");
+		navigator.navigateTo(url);
+		Collection<MyEnum> first = view.getEnums();
+		Assert.assertEquals(first, expected, url);
+		navigator.navigateTo("naked");
+		navigator.navigateTo(url);
+		// defaults that are collections are converted for every use, the views may modify them
+		Assert.assertNotSame(view.getEnums(), first, url);
+	}
+
 	@ViewName("naked")
 	public static final class Naked implements View {
 	}
@@ -228,6 +434,124 @@ public class ViewStateParametersTest {
 		}
 	}
 
+	@ViewName("batch")
+	@ViewParameters({
+			@ViewParameter(value = "property", valueClass = Property.class),
+			@ViewParameter(value = "hubert", valueClass = Hubert.class)
+	})
+	public static final class Batch implements View {
+	}
+
+	@ViewName("defaulted")
+	@ViewParameter(value = "enums", defaultValue = "TWO")
+	public static final class Defaulted implements View {
+		@Getter
+		@Setter
+		private Collection<MyEnum> enums;
+	}
+
+	@ViewName("counting")
+	@ViewParameters({
+			@ViewParameter("property"),
+			@ViewParameter("hubert")
+	})
+	public static final class Counting implements View {
+		private int propertyCalls;
+		private int hubertCalls;
+
+		public void setProperty(Property property) {
+			propertyCalls++;
+		}
+
+		public void setHubert(Hubert hubert) {
+			hubertCalls++;
+		}
+	}
+
+	@ViewName("notified")
+	@ViewParameters({
+			@ViewParameter(value = "enums", dependsOn = "property"),
+			@ViewParameter("property")
+	})
+	public static final class Notified implements View, ParametersChangedListener {
+		private final List<String> calls = new ArrayList<>();
+		private final List<Set<String>> changes = new ArrayList<>();
+
+		public void setEnums(Collection<MyEnum> enums) {
+			calls.add("enums");
+		}
+
+		public void setProperty(Property property) {
+			calls.add("property");
+		}
+
+		@Override
+		public void onParametersChanged(Set<String> parameterNames) {
+			changes.add(parameterNames);
+		}
+
+		private void reset() {
+			calls.clear();
+			changes.clear();
+		}
+	}
+
+	@ViewName("cyclic")
+	@ViewParameters({
+			@ViewParameter(value = "property", dependsOn = "hubert"),
+			@ViewParameter(value = "hubert", dependsOn = "property")
+	})
+	public static final class Cyclic implements View {
+		public void setProperty(Property property) {
+		}
+
+		public void setHubert(Hubert hubert) {
+		}
+	}
+
+	@ViewName("waiting")
+	@ViewParameters({
+			@ViewParameter("slow"),
+			@ViewParameter(value = "hubert", dependsOn = "slow"),
+			@ViewParameter("property")
+	})
+	public static final class Waiting implements View, ParametersChangedListener {
+		private final List<String> calls = new ArrayList<>();
+		private final List<Slow> slows = new ArrayList<>();
+		private final List<Set<String>> pending = new ArrayList<>();
+		private final List<Set<String>> changes = new ArrayList<>();
+
+		public void setSlow(Slow slow) {
+			calls.add("slow");
+			slows.add(slow);
+		}
+
+		public void setHubert(Hubert hubert) {
+			calls.add("hubert");
+		}
+
+		public void setProperty(Property property) {
+			calls.add("property");
+		}
+
+		@Override
+		public void onParametersPending(Set<String> parameterNames) {
+			pending.add(parameterNames);
+		}
+
+		@Override
+		public void onParametersChanged(Set<String> parameterNames) {
+			changes.add(parameterNames);
+		}
+
+		private void reset() {
+			calls.clear();
+			slows.clear();
+			pending.clear();
+			changes.clear();
+		}
+	}
+
 	@ViewName("getter")
 	@ViewParameter(value = "property")
 	public static final class PGetter implements View {
@@ -254,6 +578,11 @@ public class ViewStateParametersTest {
 	public static final class Property {
 	}
 
+	@Value
+	public static class Slow {
+		String name;
+	}
+
 	public static final class Hubert {
 	}
 
@@ -317,4 +646,21 @@ public class ViewStateParametersTest {
 		}
 	}
 
+	public static final class SlowConverter implements AsyncConverter<Slow> {
+
+		@Override
+		public Class<Slow> getInternalClass() {
+			return Slow.class;
+		}
+
+		@Override
+		public Slow getInternalObject(String stringRepresentation) {
+			return StringUtils.isEmpty(stringRepresentation) ? null : new Slow(stringRepresentation);
+		}
+
+		@Override
+		public String getStringRepresentation(Slow o) {
+			return o != null ? o.getName() : "";
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class CachingConverterTest {
+	@Test
+	public void testCachesBothDirections() {
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 10);
+		Item item = candidate.getInternalObject("1");
+		Assert.assertSame(candidate.getInternalObject("1"), item);
+		Assert.assertEquals(delegate.internalObjectCalls, 1);
+		Assert.assertEquals(candidate.getStringRepresentation(item), "1");
+		Assert.assertEquals(candidate.getStringRepresentation(new Item("1")), "1");
+		Assert.assertEquals(delegate.stringCalls, 1);
+		Assert.assertEquals(candidate.getStatistics(), new CachingConverter.Statistics(1, 1, 1, 1, 0));
+		Assert.assertEquals(candidate.getStatistics().getHitRate(), 0.5);
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 2);
+		candidate.getInternalObject("1");
+		candidate.getInternalObject("2");
+		candidate.getInternalObject("1");
+		candidate.getInternalObject("3");
+		Assert.assertEquals(delegate.internalObjectCalls, 3);
+		candidate.getInternalObject("1");
+		Assert.assertEquals(delegate.internalObjectCalls, 3);
+		candidate.getInternalObject("2");
+		Assert.assertEquals(delegate.internalObjectCalls, 4);
+		Assert.assertEquals(candidate.getStatistics().getEvictions(), 2);
+	}
+
+	@Test
+	public void testEntriesExpire() {
+		long[] now = {0};
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 10, 5, TimeUnit.NANOSECONDS, false, () -> now[0]);
+		candidate.getInternalObject("1");
+		now[0] = 5;
+		candidate.getInternalObject("1");
+		Assert.assertEquals(delegate.internalObjectCalls, 1);
+		now[0] = 6;
+		candidate.getInternalObject("1");
+		Assert.assertEquals(delegate.internalObjectCalls, 2);
+	}
+
+	@Test
+	public void testFailuresAndNullsAreNotCached() {
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 10, 0, TimeUnit.SECONDS, true);
+		Assert.assertEquals(candidate.tryGetInternalObject("x"), ConversionResult.failure());
+		Assert.assertEquals(candidate.tryGetInternalObject("x"), ConversionResult.failure());
+		Assert.assertNull(candidate.getInternalObject(""));
+		Assert.assertNull(candidate.getInternalObject(""));
+		Assert.assertEquals(delegate.internalObjectCalls, 4);
+		Assert.assertEquals(candidate.size(), 0);
+	}
+
+	@Test
+	public void testBulkConvertsMissingOnly() {
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 10);
+		Item one = candidate.getInternalObject("1");
+		Map<String, Item> result = candidate.getInternalObjects(Arrays.asList("1", "2", "2", "3"));
+		Assert.assertEquals(result.size(), 3);
+		Assert.assertSame(result.get("1"), one);
+		Assert.assertEquals(delegate.internalObjectCalls, 3);
+		candidate.invalidateAll();
+		candidate.getInternalObject("2");
+		Assert.assertEquals(delegate.internalObjectCalls, 4);
+	}
+
+	@Test
+	public void testUIScopeKeepsTheUIsApart() {
+		Object[] currentUI = {"ui1"};
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 10, 0, TimeUnit.SECONDS, false,
+				CachingConverter.Scope.UI, System::nanoTime, () -> currentUI[0]);
+		Item first = candidate.getInternalObject("1");
+		candidate.getStringRepresentation(first);
+		Assert.assertSame(candidate.getInternalObject("1"), first);
+		currentUI[0] = "ui2";
+		candidate.getInternalObject("1");
+		candidate.getStringRepresentation(first);
+		Assert.assertEquals(delegate.internalObjectCalls, 2);
+		Assert.assertEquals(delegate.stringCalls, 2);
+		currentUI[0] = null;
+		candidate.getInternalObject("1");
+		Assert.assertEquals(delegate.internalObjectCalls, 3);
+		Assert.assertEquals(candidate.size(), 5);
+		candidate.invalidateAll();
+		Assert.assertEquals(candidate.size(), 0);
+	}
+
+	@Test
+	public void testApplicationScopeIsShared() {
+		Object[] currentUI = {"ui1"};
+		CountingConverter delegate = new CountingConverter();
+		CachingConverter<Item> candidate = new CachingConverter<>(delegate, 10, 0, TimeUnit.SECONDS, false,
+				CachingConverter.Scope.APPLICATION, System::nanoTime, () -> currentUI[0]);
+		Item first = candidate.getInternalObject("1");
+		currentUI[0] = "ui2";
+		Assert.assertSame(candidate.getInternalObject("1"), first);
+		Assert.assertEquals(delegate.internalObjectCalls, 1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testMaximumSizeMustBePositive() {
+		new CachingConverter<>(new CountingConverter(), 0);
+	}
+
+	private static final class Item {
+		private final String id;
+
+		private Item(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Item && id.equals(((Item) o).id);
+		}
+
+		@Override
+		public int hashCode() {
+			return id.hashCode();
+		}
+	}
+
+	private static final class CountingConverter implements Converter<Item> {
+		private final Map<String, Item> items = new HashMap<>();
+		private int internalObjectCalls;
+		private int stringCalls;
+
+		@Override
+		public Type getInternalClass() {
+			return Item.class;
+		}
+
+		@Override
+		public Item getInternalObject(String stringRepresentation) {
+			internalObjectCalls++;
+			if (stringRepresentation.isEmpty()) {
+				return null;
+			}
+			if (!Character.isDigit(stringRepresentation.charAt(0))) {
+				throw new IllegalArgumentException(stringRepresentation);
+			}
+			return items.computeIfAbsent(stringRepresentation, Item::new);
+		}
+
+		@Override
+		public String getStringRepresentation(Item o) {
+			stringCalls++;
+			return o.id;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class CollectionFactoriesTest {
+	@DataProvider
+	private Object[][] classes() {
+		return new Object[][]{
+				{ArrayList.class},
+				{HashSet.class},
+				{LinkedHashSet.class},
+				{TreeSet.class},
+				{ConcurrentLinkedQueue.class}
+		};
+	}
+
+	@Test(dataProvider = "classes")
+	public void createTest(Class<? extends Collection> collectionClass) {
+		Collection collection = CollectionFactories.forClass(collectionClass).apply(100);
+
+		Assert.assertEquals(collection.getClass(), collectionClass);
+		Assert.assertTrue(collection.isEmpty());
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void notInstantiableTest() {
+		CollectionFactories.forClass(List.class).apply(1);
+	}
+
+	@Test
+	public void factoryUsedTest() {
+		int[] sizes = new int[1];
+		CollectionValueConverter<CollectionValueConverterTest.TestEnum, ArrayList> candidate = new CollectionValueConverter<>(
+				new EnumValueConverter<>(CollectionValueConverterTest.TestEnum.class), ArrayList.class, size -> {
+			sizes[0] = size;
+			return new ArrayList(size);
+		});
+
+		Assert.assertEquals(candidate.getInternalObject("(ONE,TWO,THREE)").size(), 3);
+		Assert.assertEquals(sizes[0], 3);
+	}
+}
@@ -1,14 +1,25 @@
 package com.vaadin.wolfgang.urlparameters.impl;
 
+import com.vaadin.wolfgang.urlparameters.BulkConverter;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
 import com.vaadin.wolfgang.urlparameters.Converter;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class CollectionValueConverterTest {
 	@DataProvider
@@ -33,6 +44,264 @@ public class CollectionValueConverterTest {
 		Assert.assertTrue(elements.containsAll(internalByString));
 	}
 
+	@DataProvider
+	private Object[][] tryData() {
+		return new Object[][]{
+				{"(ONE,THREE)", ConversionResult.success(Arrays.asList(TestEnum.ONE, TestEnum.THREE))},
+				{"", ConversionResult.success(Collections.emptyList())},
+				{"(ONE,FOUR)", ConversionResult.failure()},
+				{"FOUR", ConversionResult.failure()},
+				{"~", ConversionResult.success(Collections.emptyList())},
+				{"~$", ConversionResult.failure()},
+		};
+	}
+
+	@Test(dataProvider = "tryData")
+	public void tryGetInternalObjectTest(String stringRepresentation, ConversionResult<List<TestEnum>> expected) {
+		CollectionValueConverter<TestEnum, ArrayList> candidate = new CollectionValueConverter<>(new EnumValueConverter<>(TestEnum.class), ArrayList.class);
+		Assert.assertEquals(candidate.tryGetInternalObject(stringRepresentation), expected);
+	}
+
+	@Test
+	public void testBulkConverterResolvesAllElementsAtOnce() {
+		List<Collection<String>> calls = new ArrayList<>();
+		BulkConverter<TestEnum> valueConverter = new BulkConverter<TestEnum>() {
+			private final EnumValueConverter<TestEnum> delegate = new EnumValueConverter<>(TestEnum.class);
+
+			@Override
+			public Map<String, TestEnum> getInternalObjects(Collection<String> stringRepresentations) {
+				calls.add(stringRepresentations);
+				Map<String, TestEnum> result = new HashMap<>();
+				stringRepresentations.stream().filter(s -> !"FOUR".equals(s)).forEach(s -> result.put(s, delegate.getInternalObject(s)));
+				return result;
+			}
+
+			@Override
+			public Type getInternalClass() {
+				return TestEnum.class;
+			}
+
+			@Override
+			public TestEnum getInternalObject(String stringRepresentation) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public String getStringRepresentation(TestEnum o) {
+				return delegate.getStringRepresentation(o);
+			}
+		};
+		CollectionValueConverter<TestEnum, ArrayList> candidate = new CollectionValueConverter<>(valueConverter, ArrayList.class);
+		Assert.assertEquals(candidate.getInternalObject("(THREE,ONE,FOUR)"), Arrays.asList(TestEnum.THREE, TestEnum.ONE, null));
+		Assert.assertEquals(calls, Collections.singletonList(Arrays.asList("THREE", "ONE", "FOUR")));
+		Assert.assertEquals(candidate.tryGetInternalObject("TWO"), ConversionResult.success(Collections.singletonList(TestEnum.TWO)));
+		Assert.assertEquals(calls.size(), 2);
+		Assert.assertEquals(candidate.getInternalObject(""), Collections.emptyList());
+		Assert.assertEquals(calls.size(), 2);
+	}
+
+	@DataProvider
+	private Object[][] orderings() {
+		List<TestEnum> unordered = Arrays.asList(TestEnum.TWO, TestEnum.THREE, TestEnum.ONE);
+		return new Object[][]{
+				{CollectionValueConverter.Ordering.NATURAL, unordered, "(ONE,TWO,THREE)"},
+				{CollectionValueConverter.Ordering.NATURAL, new TreeSet<>(unordered), "(ONE,TWO,THREE)"},
+				{CollectionValueConverter.Ordering.STRING_FORM, unordered, "(ONE,THREE,TWO)"},
+				{CollectionValueConverter.Ordering.STRING_FORM, Arrays.asList(TestEnum.ONE, TestEnum.THREE, TestEnum.TWO), "(ONE,THREE,TWO)"},
+				{CollectionValueConverter.Ordering.INSERTION, unordered, "(TWO,THREE,ONE)"},
+				{CollectionValueConverter.Ordering.INSERTION, new LinkedHashSet<>(unordered), "(TWO,THREE,ONE)"},
+		};
+	}
+
+	@Test(dataProvider = "orderings")
+	public void orderingTest(CollectionValueConverter.Ordering ordering, Collection<TestEnum> elements, String expected) {
+		CollectionValueConverter<TestEnum, ArrayList> candidate = new CollectionValueConverter<>(new EnumValueConverter<>(TestEnum.class), ArrayList.class, ordering);
+		Assert.assertEquals(candidate.getStringRepresentation(elements), expected);
+	}
+
+	@Test
+	public void testNotComparableOrderedByStringForm() {
+		Converter<Object> valueConverter = new Converter<Object>() {
+			@Override
+			public Type getInternalClass() {
+				return Object.class;
+			}
+
+			@Override
+			public Object getInternalObject(String stringRepresentation) {
+				return stringRepresentation;
+			}
+
+			@Override
+			public String getStringRepresentation(Object o) {
+				return o.toString();
+			}
+		};
+		CollectionValueConverter<Object, ArrayList> candidate = new CollectionValueConverter<>(valueConverter, ArrayList.class);
+		Object b = new Object() {
+			@Override
+			public String toString() {
+				return "b";
+			}
+		};
+		Assert.assertEquals(candidate.getStringRepresentation(Arrays.asList(b, "c", "a")), "(a,b,c)");
+	}
+
+	@Test
+	public void testCollectionModifiedInPlace() {
+		CollectionValueConverter<TestEnum, ArrayList> candidate = new CollectionValueConverter<>(new EnumValueConverter<>(TestEnum.class), ArrayList.class);
+		List<TestEnum> elements = new ArrayList<>(Arrays.asList(TestEnum.ONE, TestEnum.TWO));
+		Assert.assertEquals(candidate.getStringRepresentation(elements), "(ONE,TWO)");
+		elements.add(TestEnum.THREE);
+		Assert.assertEquals(candidate.getStringRepresentation(elements), "(ONE,TWO,THREE)");
+	}
+
+	@DataProvider
+	private Object[][] rangeLikeStrings() {
+		return new Object[][]{
+				{false, Arrays.asList("10-12")},
+				{true, Arrays.asList("10-12")},
+				{false, Arrays.asList("1", "10-12", "2", "3")},
+				{true, Arrays.asList("1", "10-12", "2", "3")},
+				{true, Arrays.asList("1", "2", "3", "4")},
+		};
+	}
+
+	@Test(dataProvider = "rangeLikeStrings")
+	public void testRangeLikeStringsNotExpanded(boolean compactEncoding, List<String> elements) {
+		Converter<String> valueConverter = new Converter<String>() {
+			@Override
+			public Type getInternalClass() {
+				return String.class;
+			}
+
+			@Override
+			public String getInternalObject(String stringRepresentation) {
+				return stringRepresentation;
+			}
+
+			@Override
+			public String getStringRepresentation(String o) {
+				return o;
+			}
+		};
+		CollectionValueConverter<String, ArrayList> candidate = new CollectionValueConverter<>(valueConverter, ArrayList.class, CollectionValueConverter.Ordering.INSERTION);
+		candidate.setCompactEncoding(compactEncoding);
+		String s = candidate.getStringRepresentation(elements);
+		Assert.assertEquals(candidate.getInternalObject(s), elements, s);
+		Assert.assertEquals(candidate.tryGetInternalObject(s), ConversionResult.success(elements), s);
+
+		MultiValueConverter<String, ArrayList> multiValueConverter = new MultiValueConverter<>(valueConverter, ArrayList.class);
+		multiValueConverter.setCompactEncoding(compactEncoding);
+		s = multiValueConverter.getStringRepresentation(elements);
+		Assert.assertEquals(multiValueConverter.getInternalObject(s), elements, s);
+	}
+
+	@Test
+	public void testCompactEncoding() {
+		Converter<Integer> valueConverter = new Converter<Integer>() {
+			@Override
+			public Type getInternalClass() {
+				return Integer.class;
+			}
+
+			@Override
+			public Integer getInternalObject(String stringRepresentation) {
+				return Integer.valueOf(stringRepresentation);
+			}
+
+			@Override
+			public String getStringRepresentation(Integer o) {
+				return o.toString();
+			}
+
+			@Override
+			public boolean isNumeric() {
+				return true;
+			}
+		};
+		CollectionValueConverter<Integer, TreeSet> candidate = new CollectionValueConverter<>(valueConverter, TreeSet.class);
+		Set<Integer> ids = new TreeSet<>();
+		for (int i = 1; i <= 500; i++) {
+			ids.add(i);
+		}
+		ids.add(502);
+		Assert.assertTrue(candidate.getStringRepresentation(ids).startsWith("(1,2,3,"));
+		String plain = candidate.getStringRepresentation(ids);
+		// ranges are read without compact encoding as well
+		Assert.assertEquals(candidate.getInternalObject("(1-5,9)"), new TreeSet<>(Arrays.asList(1, 2, 3, 4, 5, 9)));
+		Assert.assertTrue(candidate.tryGetInternalObject("(1-5,9)").isSuccess());
+		candidate.setCompactEncoding(true);
+		Assert.assertEquals(candidate.getStringRepresentation(ids), "(1-500,502)");
+		Assert.assertEquals(candidate.getInternalObject("(1-500,502)"), ids);
+		Assert.assertEquals(candidate.getInternalObject(plain), ids);
+		Assert.assertEquals(candidate.getInternalObject("3-5"), new TreeSet<>(Arrays.asList(3, 4, 5)));
+
+		// every range is short enough, all of them are too many elements
+		StringBuilder ranges = new StringBuilder("(");
+		for (int i = 0; i < 100; i++) {
+			ranges.append(i > 0 ? "," : "").append(i * 100_000).append('-').append(i * 100_000 + 99_999);
+		}
+		String tooMany = ranges.append(')').toString();
+		Assert.assertFalse(candidate.tryGetInternalObject(tooMany).isSuccess());
+		try {
+			candidate.getInternalObject(tooMany);
+			Assert.fail("expected too many elements to be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		Assert.assertEquals(candidate.getInternalObject("1-" + CompactEncoding.MAX_ELEMENTS).size(), CompactEncoding.MAX_ELEMENTS);
+	}
+
+	@Test
+	public void testCompactEnumSet() {
+		CollectionValueConverter<TestEnum, HashSet> candidate = new CollectionValueConverter<>(new EnumValueConverter<>(TestEnum.class), HashSet.class);
+		Set<TestEnum> values = EnumSet.of(TestEnum.ONE, TestEnum.THREE);
+		Assert.assertEquals(candidate.getStringRepresentation(values), "(ONE,THREE)");
+		Assert.assertEquals(new HashSet<>(candidate.getInternalObject("~BQ")), values);
+		candidate.setCompactEncoding(true);
+		Assert.assertEquals(candidate.getStringRepresentation(values), "~BQ");
+		Assert.assertEquals(new HashSet<>(candidate.getInternalObject("~BQ")), values);
+		Assert.assertEquals(new HashSet<>(candidate.getInternalObject("(ONE,THREE)")), values);
+		// lists keep their duplicates and are not written as bitsets
+		Assert.assertEquals(candidate.getStringRepresentation(Arrays.asList(TestEnum.ONE, TestEnum.ONE)), "(ONE,ONE)");
+	}
+
+	@DataProvider
+	private Object[][] types() throws NoSuchFieldException {
+		return new Object[][]{
+				{genericType("arrayList"), true},
+				{genericType("list"), true},
+				{genericType("collection"), true},
+				{genericType("iterable"), true},
+				{genericType("set"), false},
+				{genericType("otherList"), false},
+				{genericType("rawList"), false},
+				{TestEnum.class, false},
+				{String.class, false}
+		};
+	}
+
+	@Test(dataProvider = "types", timeOut = 1000)
+	public void convertsTest(Type type, boolean expected) {
+		CollectionValueConverter<TestEnum, ArrayList> candidate = new CollectionValueConverter<>(new EnumValueConverter<>(TestEnum.class), ArrayList.class);
+		Assert.assertEquals(candidate.converts(type), expected, type.toString());
+	}
+
+	private static Type genericType(String fieldName) throws NoSuchFieldException {
+		return Types.class.getDeclaredField(fieldName).getGenericType();
+	}
+
+	private static class Types {
+		private ArrayList<TestEnum> arrayList;
+		private List<TestEnum> list;
+		private Collection<TestEnum> collection;
+		private Iterable<TestEnum> iterable;
+		private Set<TestEnum> set;
+		private List<String> otherList;
+		private List rawList;
+	}
+
 	public enum TestEnum {
 		ONE, TWO, THREE
 	}
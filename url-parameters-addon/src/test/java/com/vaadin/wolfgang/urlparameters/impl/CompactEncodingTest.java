@@ -0,0 +1,57 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class CompactEncodingTest {
+	@DataProvider
+	private Object[][] collapse() {
+		return new Object[][]{
+				{new String[]{"1", "2", "3"}, new String[]{"1-3"}},
+				{new String[]{"1", "2", "3", "5", "6", "8", "9", "10", "11"}, new String[]{"1-3", "5", "6", "8-11"}},
+				{new String[]{"3", "2", "1"}, new String[]{"3", "2", "1"}},
+				{new String[]{"1", "2"}, new String[]{"1", "2"}},
+				{new String[]{"1", "2", "a"}, new String[]{"1", "2", "a"}},
+				{new String[]{"01", "2", "3"}, new String[]{"01", "2", "3"}},
+				{new String[]{"-1", "0", "1"}, new String[]{"-1", "0", "1"}},
+		};
+	}
+
+	@Test(dataProvider = "collapse")
+	public void collapseRangesTest(String[] elementStrings, String[] expected) {
+		Assert.assertEquals(CompactEncoding.collapseRanges(elementStrings), expected);
+	}
+
+	@DataProvider
+	private Object[][] ranges() {
+		return new Object[][]{
+				{"1-3", Arrays.asList("1", "2", "3")},
+				{"9-11", Arrays.asList("9", "10", "11")},
+				{"5-5", Collections.singletonList("5")},
+				{"5-4", Collections.emptyList()},
+				{"5", Collections.emptyList()},
+				{"-5", Collections.emptyList()},
+				{"a-b", Collections.emptyList()},
+				{"1-2-3", Collections.emptyList()},
+		};
+	}
+
+	@Test(dataProvider = "ranges")
+	public void forEachInRangeTest(String element, List<String> expected) {
+		List<String> result = new ArrayList<>();
+		Assert.assertEquals(CompactEncoding.forEachInRange(element, result::add), expected.size());
+		Assert.assertEquals(result, expected);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testRangeTooLong() {
+		CompactEncoding.forEachInRange("1-" + (CompactEncoding.MAX_RANGE_LENGTH + 1), element -> {
+		});
+	}
+}
@@ -0,0 +1,54 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ConversionExecutorsTest {
+	@Test
+	public void testBoundedRunsConcurrentlyOnDaemonThreads() throws Exception {
+		ExecutorService executor = ConversionExecutors.bounded(2);
+		try {
+			// both tasks pass the barrier only when they run at the same time
+			CyclicBarrier barrier = new CyclicBarrier(2);
+			CompletableFuture<Thread> first = CompletableFuture.supplyAsync(() -> await(barrier), executor);
+			CompletableFuture<Thread> second = CompletableFuture.supplyAsync(() -> await(barrier), executor);
+			Thread firstThread = first.get(5, TimeUnit.SECONDS);
+			Thread secondThread = second.get(5, TimeUnit.SECONDS);
+
+			Assert.assertNotSame(firstThread, secondThread);
+			Assert.assertTrue(firstThread.isDaemon());
+			Assert.assertTrue(firstThread.getName().startsWith("url-parameters-conversion-"), firstThread.getName());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testBoundedNeedsThreads() {
+		ConversionExecutors.bounded(0);
+	}
+
+	@Test
+	public void testVirtualThreadsOrBounded() throws Exception {
+		ExecutorService executor = ConversionExecutors.virtualThreadsOrBounded(1);
+		try {
+			Assert.assertEquals(CompletableFuture.supplyAsync(() -> "converted", executor).get(5, TimeUnit.SECONDS), "converted");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Thread await(CyclicBarrier barrier) {
+		try {
+			barrier.await(5, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		return Thread.currentThread();
+	}
+}
@@ -0,0 +1,71 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class EnumSetValueConverterTest {
+	@DataProvider
+	private Object[][] data() {
+		return new Object[][]{
+				{"(ONE,TWO,THREE)", EnumSet.allOf(TestEnum.class)},
+				{"(ONE,THREE)", EnumSet.of(TestEnum.THREE, TestEnum.ONE)},
+				{"TWO", EnumSet.of(TestEnum.TWO)},
+				{"", EnumSet.noneOf(TestEnum.class)},
+		};
+	}
+
+	@Test(dataProvider = "data")
+	public void identifyTest(String stringRepresentation, Set<TestEnum> elements) {
+		EnumSetValueConverter<TestEnum> candidate = new EnumSetValueConverter<>(TestEnum.class);
+		Assert.assertEquals(candidate.getStringRepresentation(elements), stringRepresentation);
+		Assert.assertEquals(candidate.getStringRepresentation(new HashSet<>(elements)), stringRepresentation);
+		Collection<TestEnum> internal = candidate.getInternalObject(stringRepresentation);
+		Assert.assertTrue(internal instanceof EnumSet);
+		Assert.assertEquals(internal, elements);
+	}
+
+	@Test
+	public void testCaseInsensitive() {
+		EnumSetValueConverter<TestEnum> candidate = new EnumSetValueConverter<>(new EnumValueConverter<>(TestEnum.class, true));
+		Assert.assertEquals(candidate.getInternalObject("(one,Three)"), EnumSet.of(TestEnum.ONE, TestEnum.THREE));
+	}
+
+	@DataProvider
+	private Object[][] types() throws NoSuchFieldException {
+		return new Object[][]{
+				{genericType("enumSet"), true},
+				{genericType("set"), true},
+				{genericType("collection"), true},
+				{genericType("list"), false},
+				{TestEnum.class, false},
+		};
+	}
+
+	@Test(dataProvider = "types")
+	public void convertsTest(Type type, boolean expected) {
+		Assert.assertEquals(new EnumSetValueConverter<>(TestEnum.class).converts(type), expected, type.toString());
+	}
+
+	private static Type genericType(String fieldName) throws NoSuchFieldException {
+		return Types.class.getDeclaredField(fieldName).getGenericType();
+	}
+
+	private static class Types {
+		private EnumSet<TestEnum> enumSet;
+		private Set<TestEnum> set;
+		private Collection<TestEnum> collection;
+		private List<TestEnum> list;
+	}
+
+	public enum TestEnum {
+		ONE, TWO, THREE
+	}
+}
@@ -1,9 +1,13 @@
 package com.vaadin.wolfgang.urlparameters.impl;
 
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public class EnumValueConverterTest {
 	@DataProvider
 	private Object[][] data() {
@@ -25,7 +29,82 @@ public class EnumValueConverterTest {
 		Assert.assertEquals(internal, testEnum);
 	}
 
+	@DataProvider
+	private Object[][] names() {
+		return new Object[][]{
+				{false, "ONE", TestEnum.ONE},
+				{false, "one", null},
+				{false, "FOUR", null},
+				{false, null, null},
+				{true, "ONE", TestEnum.ONE},
+				{true, "one", TestEnum.ONE},
+				{true, "tHrEe", TestEnum.THREE},
+				{true, "FOUR", null},
+		};
+	}
+
+	@Test(dataProvider = "names")
+	public void lookupTest(boolean caseInsensitive, String name, TestEnum expected) {
+		EnumValueConverter<TestEnum> candidate = new EnumValueConverter<>(TestEnum.class, caseInsensitive);
+		Assert.assertEquals(candidate.lookup(name), expected);
+	}
+
+	@Test
+	public void testLookupPrefersExactNames() {
+		EnumValueConverter<CaseEnum> candidate = new EnumValueConverter<>(CaseEnum.class, true);
+		Assert.assertEquals(candidate.lookup("a"), CaseEnum.a);
+		Assert.assertEquals(candidate.lookup("A"), CaseEnum.A);
+		Assert.assertEquals(candidate.lookup("aB"), CaseEnum.aB);
+		Assert.assertNull(candidate.lookup("ab"));
+		Assert.assertEquals(candidate.lookup("c"), CaseEnum.C);
+	}
+
+	@Test(dataProvider = "names")
+	public void tryGetInternalObjectTest(boolean caseInsensitive, String name, TestEnum expected) {
+		EnumValueConverter<TestEnum> candidate = new EnumValueConverter<>(TestEnum.class, caseInsensitive);
+		ConversionResult<TestEnum> result = candidate.tryGetInternalObject(name);
+		Assert.assertEquals(result.isSuccess(), name == null || expected != null);
+		Assert.assertEquals(result.orElse(null), expected);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnknownName() {
+		new EnumValueConverter<>(TestEnum.class).getInternalObject("FOUR");
+	}
+
+	@DataProvider
+	private Object[][] bitsets() {
+		return new Object[][]{
+				{EnumSet.of(TestEnum.ONE), "~AQ"},
+				{EnumSet.of(TestEnum.TWO, TestEnum.THREE), "~Bg"},
+				{EnumSet.allOf(TestEnum.class), "~Bw"},
+				{EnumSet.noneOf(TestEnum.class), ""},
+		};
+	}
+
+	@Test(dataProvider = "bitsets")
+	public void bitsetTest(Set<TestEnum> values, String expected) {
+		EnumValueConverter<TestEnum> candidate = new EnumValueConverter<>(TestEnum.class);
+		String s = candidate.getBitsetRepresentation(values);
+		Assert.assertEquals(s, expected);
+		if (!values.isEmpty()) {
+			Set<TestEnum> result = EnumSet.noneOf(TestEnum.class);
+			Assert.assertEquals(candidate.forEachInBitset(s, result::add), values.size());
+			Assert.assertEquals(result, values);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testBitsetExceedingConstants() {
+		new EnumValueConverter<>(TestEnum.class).forEachInBitset("~CA", value -> {
+		});
+	}
+
 	public enum TestEnum {
 		ONE, TWO, THREE
 	}
+
+	public enum CaseEnum {
+		a, A, Ab, aB, C
+	}
 }
\ No newline at end of file
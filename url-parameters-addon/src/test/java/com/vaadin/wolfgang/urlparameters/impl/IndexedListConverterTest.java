@@ -0,0 +1,106 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.data.provider.ListDataProvider;
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class IndexedListConverterTest {
+	private static final Item ONE = new Item(1);
+	private static final Item TWO = new Item(2);
+
+	@DataProvider
+	private Object[][] data() {
+		return new Object[][]{
+				{"1", ConversionResult.success(ONE)},
+				{"2", ConversionResult.success(TWO)},
+				{"3", ConversionResult.success(null)},
+				{"", ConversionResult.success(null)},
+				{"x", ConversionResult.failure()},
+		};
+	}
+
+	@Test(dataProvider = "data")
+	public void tryGetInternalObjectTest(String stringRepresentation, ConversionResult<Item> expected) {
+		IndexedListConverter<Item, Integer> candidate = new IndexedListConverter<>(Item.class, Arrays.asList(ONE, TWO), Item::getId, Integer::valueOf);
+		Assert.assertEquals(candidate.tryGetInternalObject(stringRepresentation), expected);
+		if (expected.isSuccess()) {
+			Assert.assertEquals(candidate.getInternalObject(stringRepresentation), expected.getValue());
+		}
+	}
+
+	@Test
+	public void identifyTest() {
+		IndexedListConverter<Item, Integer> candidate = new IndexedListConverter<>(Item.class, Arrays.asList(ONE, TWO), Item::getId, Integer::valueOf);
+		Assert.assertEquals(candidate.getStringRepresentation(TWO), "2");
+		Assert.assertEquals(candidate.getStringRepresentation(null), "");
+		Map<String, Item> items = candidate.getInternalObjects(Arrays.asList("2", "3", "1"));
+		Assert.assertEquals(items.size(), 2);
+		Assert.assertSame(items.get("1"), ONE);
+		Assert.assertSame(items.get("2"), TWO);
+	}
+
+	@Test
+	public void testRefreshOfList() {
+		List<Item> items = new ArrayList<>(Arrays.asList(ONE));
+		IndexedListConverter<Item, Integer> candidate = new IndexedListConverter<>(Item.class, items, Item::getId, Integer::valueOf);
+		Assert.assertNull(candidate.getInternalObject("2"));
+		items.add(TWO);
+		Assert.assertNull(candidate.getInternalObject("2"));
+		candidate.refresh();
+		Assert.assertSame(candidate.getInternalObject("2"), TWO);
+	}
+
+	@Test
+	public void testRefreshOfDataProvider() {
+		List<Item> items = new ArrayList<>(Arrays.asList(ONE));
+		ListDataProvider<Item> dataProvider = new ListDataProvider<>(items);
+		IndexedListConverter<Item, Integer> candidate = new IndexedListConverter<>(Item.class, dataProvider, Item::getId, Integer::valueOf);
+		Assert.assertSame(candidate.getInternalObject("1"), ONE);
+		items.add(TWO);
+		dataProvider.refreshAll();
+		Assert.assertSame(candidate.getInternalObject("2"), TWO);
+		candidate.detach();
+		items.remove(ONE);
+		dataProvider.refreshAll();
+		Assert.assertSame(candidate.getInternalObject("1"), ONE);
+	}
+
+	@Test
+	public void testRefreshWhileBuilding() {
+		List<Item> items = new ArrayList<>(Arrays.asList(ONE));
+		List<IndexedListConverter<Item, Integer>> candidate = new ArrayList<>();
+		Supplier<Stream<? extends Item>> changingItems = () -> {
+			List<Item> snapshot = new ArrayList<>(items);
+			if (!items.contains(TWO)) {
+				// the items change and refresh is called while the index is built from the old ones
+				items.add(TWO);
+				candidate.get(0).refresh();
+			}
+			return snapshot.stream();
+		};
+		candidate.add(new IndexedListConverter<>(Item.class, changingItems, null, Item::getId, Integer::valueOf, String::valueOf));
+		Assert.assertSame(candidate.get(0).getInternalObject("1"), ONE);
+		Assert.assertSame(candidate.get(0).getInternalObject("2"), TWO, "index of the old items kept");
+	}
+
+	private static final class Item {
+		private final int id;
+
+		private Item(int id) {
+			this.id = id;
+		}
+
+		private Integer getId() {
+			return id;
+		}
+	}
+}
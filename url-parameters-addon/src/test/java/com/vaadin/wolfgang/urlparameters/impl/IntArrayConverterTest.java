@@ -0,0 +1,32 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class IntArrayConverterTest {
+	@DataProvider
+	private Object[][] data() {
+		return new Object[][]{
+				{new int[]{}, ""},
+				{new int[]{5}, "5"},
+				{new int[]{5, 1, 2, 2}, "(1,2,5)"},
+				{new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}, "(" + Integer.MIN_VALUE + "," + Integer.MAX_VALUE + ")"},
+		};
+	}
+
+	@Test(dataProvider = "data")
+	public void identifyTest(int[] numbers, String stringRepresentation) {
+		IntArrayConverter candidate = new IntArrayConverter();
+		String s = candidate.getStringRepresentation(numbers);
+		Assert.assertEquals(s, stringRepresentation);
+		Assert.assertEquals(candidate.getStringRepresentation(candidate.getInternalObject(s)), s);
+	}
+
+	@Test
+	public void testOutOfRange() {
+		IntArrayConverter candidate = new IntArrayConverter();
+		Assert.assertFalse(candidate.tryGetInternalObject("(1," + (Integer.MAX_VALUE + 1L) + ")").isSuccess());
+		Assert.assertFalse(candidate.tryGetInternalObject(Long.toString(Integer.MIN_VALUE - 1L)).isSuccess());
+	}
+}
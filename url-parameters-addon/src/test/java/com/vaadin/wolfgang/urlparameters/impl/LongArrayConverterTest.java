@@ -0,0 +1,67 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class LongArrayConverterTest {
+	@DataProvider
+	private Object[][] data() {
+		return new Object[][]{
+				{new long[]{}, "", ""},
+				{new long[]{5}, "5", "5"},
+				{new long[]{1, 2, 5}, "(1,2,5)", "(1,2,5)"},
+				{new long[]{5, 1, 2, 2}, "(1,2,5)", "(1,2,5)"},
+				{new long[]{1, 2, 3, 4, 6}, "(1,2,3,4,6)", "(1-4,6)"},
+				{new long[]{1, 2, 3}, "(1,2,3)", "1-3"},
+				{new long[]{-3, -2, -1, 0}, "(-3,-2,-1,0)", "-3-0"},
+				{new long[]{Long.MIN_VALUE, Long.MAX_VALUE}, "(" + Long.MIN_VALUE + "," + Long.MAX_VALUE + ")", "(" + Long.MIN_VALUE + "," + Long.MAX_VALUE + ")"},
+		};
+	}
+
+	@Test(dataProvider = "data")
+	public void identifyTest(long[] numbers, String plain, String compact) {
+		LongArrayConverter candidate = new LongArrayConverter();
+		Assert.assertEquals(candidate.getStringRepresentation(numbers), plain);
+		long[] internal = candidate.getInternalObject(plain);
+		candidate.setCompactEncoding(true);
+		Assert.assertEquals(candidate.getStringRepresentation(numbers), compact);
+		Assert.assertEquals(candidate.getInternalObject(compact), internal);
+		Assert.assertEquals(candidate.getStringRepresentation(internal), compact);
+	}
+
+	@DataProvider
+	private Object[][] parseData() {
+		return new Object[][]{
+				{"(3,1,2,1)", new long[]{1, 2, 3}},
+				{"(1-3,2-4)", new long[]{1, 2, 3, 4}},
+				{"()", new long[]{}},
+				{"(1,2", new long[]{1, 2}},
+				{"(-5--3)", new long[]{-5, -4, -3}},
+				{"(1,,2)", null},
+				{"(1,2,)", null},
+				{"(1;2)", null},
+				{"a", null},
+				{"-", null},
+				{"3-1", null},
+				{"9223372036854775808", null},
+				{"1-" + (CompactEncoding.MAX_RANGE_LENGTH + 1), null},
+				{"(1-" + CompactEncoding.MAX_ELEMENTS / 2 + ",-" + CompactEncoding.MAX_ELEMENTS / 2 + "-0)", null},
+		};
+	}
+
+	@Test(dataProvider = "parseData")
+	public void tryGetInternalObjectTest(String stringRepresentation, long[] expected) {
+		ConversionResult<long[]> result = new LongArrayConverter().tryGetInternalObject(stringRepresentation);
+		Assert.assertEquals(result.isSuccess(), expected != null, stringRepresentation);
+		if (expected != null) {
+			Assert.assertEquals(result.getValue(), expected);
+		}
+	}
+
+	@Test(expectedExceptions = NumberFormatException.class)
+	public void testNoNumbers() {
+		new LongArrayConverter().getInternalObject("(1,a)");
+	}
+}
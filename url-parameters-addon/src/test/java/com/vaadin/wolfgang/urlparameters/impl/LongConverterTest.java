@@ -0,0 +1,54 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import com.vaadin.wolfgang.urlparameters.ConversionResult;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class LongConverterTest {
+	@DataProvider
+	private Object[][] data() {
+		return new Object[][]{
+				{"4711", ConversionResult.success(4711L), ConversionResult.success(4711)},
+				{"-1", ConversionResult.success(-1L), ConversionResult.success(-1)},
+				{"", ConversionResult.success(null), ConversionResult.success(null)},
+				{"3000000000", ConversionResult.success(3000000000L), ConversionResult.failure()},
+				{"9223372036854775807", ConversionResult.success(Long.MAX_VALUE), ConversionResult.failure()},
+				{"9223372036854775808", ConversionResult.failure(), ConversionResult.failure()},
+				{"12a", ConversionResult.failure(), ConversionResult.failure()},
+				{"-", ConversionResult.failure(), ConversionResult.failure()},
+				{"+5", ConversionResult.success(5L), ConversionResult.success(5)},
+				{"+-5", ConversionResult.failure(), ConversionResult.failure()},
+				{"+", ConversionResult.failure(), ConversionResult.failure()},
+				{"-2147483648", ConversionResult.success(-2147483648L), ConversionResult.success(Integer.MIN_VALUE)},
+				{"\u0661", ConversionResult.failure(), ConversionResult.failure()},
+		};
+	}
+
+	@Test(dataProvider = "data")
+	public void tryGetInternalObjectTest(String stringRepresentation, ConversionResult<Long> expectedLong, ConversionResult<Integer> expectedInt) {
+		Assert.assertEquals(new LongConverter().tryGetInternalObject(stringRepresentation), expectedLong);
+		Assert.assertEquals(new IntConverter().tryGetInternalObject(stringRepresentation), expectedInt);
+		// getInternalObject agrees: the same value or an exception
+		Assert.assertEquals(getInternalObject(new LongConverter(), stringRepresentation), expectedLong);
+		Assert.assertEquals(getInternalObject(new IntConverter(), stringRepresentation), expectedInt);
+	}
+
+	private static <T> ConversionResult<T> getInternalObject(Converter<T> converter, String stringRepresentation) {
+		try {
+			return ConversionResult.success(converter.getInternalObject(stringRepresentation));
+		} catch (NumberFormatException e) {
+			return ConversionResult.failure();
+		}
+	}
+
+	@Test
+	public void convertsTest() {
+		Assert.assertTrue(new LongConverter().converts(long.class));
+		Assert.assertTrue(new LongConverter().converts(Long.class));
+		Assert.assertFalse(new LongConverter().converts(int.class));
+		Assert.assertTrue(new IntConverter().converts(int.class));
+		Assert.assertEquals(new IntConverter().getStringRepresentation(42), "42");
+	}
+}
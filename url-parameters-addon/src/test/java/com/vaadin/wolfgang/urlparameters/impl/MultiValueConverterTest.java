@@ -5,10 +5,13 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 public class MultiValueConverterTest {
 	@DataProvider
@@ -32,6 +35,41 @@ public class MultiValueConverterTest {
 		Assert.assertEquals(elements, internalByString);
 	}
 
+	@DataProvider
+	private Object[][] types() throws NoSuchFieldException {
+		return new Object[][]{
+				{genericType("arrayList"), true},
+				{genericType("list"), true},
+				{genericType("collection"), true},
+				{genericType("iterable"), true},
+				{genericType("set"), false},
+				{genericType("otherList"), false},
+				{genericType("rawList"), false},
+				{TestEnum.class, false},
+				{String.class, false}
+		};
+	}
+
+	@Test(dataProvider = "types", timeOut = 1000)
+	public void convertsTest(Type type, boolean expected) {
+		MultiValueConverter<TestEnum, ArrayList> candidate = new MultiValueConverter<>(new EnumValueConverter<>(TestEnum.class), ArrayList.class);
+		Assert.assertEquals(candidate.converts(type), expected, type.toString());
+	}
+
+	private static Type genericType(String fieldName) throws NoSuchFieldException {
+		return Types.class.getDeclaredField(fieldName).getGenericType();
+	}
+
+	private static class Types {
+		private ArrayList<TestEnum> arrayList;
+		private List<TestEnum> list;
+		private Collection<TestEnum> collection;
+		private Iterable<TestEnum> iterable;
+		private Set<TestEnum> set;
+		private List<String> otherList;
+		private List rawList;
+	}
+
 	public enum TestEnum {
 		ONE, TWO, THREE
 	}
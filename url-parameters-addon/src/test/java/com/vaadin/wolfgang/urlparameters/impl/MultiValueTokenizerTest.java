@@ -0,0 +1,57 @@
+package com.vaadin.wolfgang.urlparameters.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MultiValueTokenizerTest {
+	@DataProvider
+	private Object[][] elements() {
+		return new Object[][]{
+				{Collections.emptyList(), ""},
+				{Collections.singletonList("ONE"), "ONE"},
+				{Collections.singletonList("a,b"), "a,b"},
+				{Arrays.asList("ONE", "TWO", "THREE"), "(ONE,TWO,THREE)"},
+				{Arrays.asList("a,b", "c)", "d\\"), "(a\\,b,c\\),d\\\\)"},
+				{Arrays.asList("(1,2)", "(3,4)"), "((1,2),(3,4))"},
+				{Collections.singletonList("(1,2)"), "((1,2))"},
+				{Arrays.asList("(1\\,x,2)", "(3"), "((1\\,x,2),\\(3)"},
+				{Arrays.asList("", "x"), "(,x)"}
+		};
+	}
+
+	@Test(dataProvider = "elements")
+	public void roundTripTest(List<String> elements, String expected) {
+		String s = MultiValueTokenizer.format(elements.iterator());
+		Assert.assertEquals(s, expected);
+
+		List<String> parsed = new ArrayList<>();
+		int count = MultiValueTokenizer.forEachElement(s, parsed::add);
+		Assert.assertEquals(parsed, elements);
+		Assert.assertEquals(count, elements.size());
+		Assert.assertEquals(MultiValueTokenizer.countElements(s), elements.size());
+	}
+
+	@DataProvider
+	private Object[][] strings() {
+		return new Object[][]{
+				{null, Collections.emptyList()},
+				{"()", Collections.emptyList()},
+				{"(a,b", Arrays.asList("a", "b")},
+				{"(a,b)trailing", Arrays.asList("a", "b")},
+				{"((a,b),c)", Arrays.asList("(a,b)", "c")}
+		};
+	}
+
+	@Test(dataProvider = "strings")
+	public void parseTest(String s, List<String> expected) {
+		List<String> parsed = new ArrayList<>();
+		MultiValueTokenizer.forEachElement(s, parsed::add);
+		Assert.assertEquals(parsed, expected);
+	}
+}
@@ -0,0 +1,103 @@
+package com.vaadin.wolfgang.urlparameters.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Writes the source of SyntheticTypes: a value class per parameter (V00..V99) and the views having 1, 10 and 100
+ * parameters of them. Run in the generate-sources phase of the build, see the pom of the benchmarks.
+ */
+public final class SyntheticTypesGenerator {
+	private static final String PACKAGE = "com.vaadin.wolfgang.urlparameters.benchmarks";
+	private static final String CLASS_NAME = "SyntheticTypes";
+	private static final int VALUE_TYPES = 100;
+	private static final int[] PARAMETER_COUNTS = {1, 10, 100};
+
+	private SyntheticTypesGenerator() {
+	}
+
+	/**
+	 * Writes the source below the given directory
+	 *
+	 * @param args the root directory of the generated sources
+	 * @throws IOException if the source cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("usage: SyntheticTypesGenerator <generated sources directory>");
+		}
+		Path directory = Paths.get(args[0], PACKAGE.split("\\."));
+		Files.createDirectories(directory);
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(directory.resolve(CLASS_NAME + ".java"), StandardCharsets.UTF_8))) {
+			write(out);
+		}
+	}
+
+	private static void write(PrintWriter out) {
+		out.println("package " + PACKAGE + ";");
+		out.println();
+		out.println("import com.vaadin.navigator.View;");
+		out.println("import com.vaadin.wolfgang.urlparameters.ViewName;");
+		out.println("import com.vaadin.wolfgang.urlparameters.ViewParameter;");
+		out.println("import com.vaadin.wolfgang.urlparameters.ViewParameters;");
+		out.println("import lombok.Getter;");
+		out.println("import lombok.Setter;");
+		out.println();
+		out.println("import java.util.Arrays;");
+		out.println("import java.util.Collections;");
+		out.println("import java.util.List;");
+		out.println("import java.util.function.Supplier;");
+		out.println();
+		out.println("/*");
+		out.println("generated by SyntheticTypesGenerator - do not edit");
+		out.println(" */");
+		out.println("final class " + CLASS_NAME + " {");
+		out.println("\tstatic final List<Supplier<? extends SyntheticViews.Value>> FACTORIES = Collections.unmodifiableList(Arrays.asList(");
+		for (int i = 0; i < VALUE_TYPES; i++) {
+			out.println("\t\t\t" + valueClass(i) + "::new" + (i < VALUE_TYPES - 1 ? "," : ""));
+		}
+		out.println("\t));");
+		out.println("\tstatic final List<Class<? extends SyntheticViews.Value>> VALUE_CLASSES = Collections.unmodifiableList(Arrays.asList(");
+		for (int i = 0; i < VALUE_TYPES; i++) {
+			out.println("\t\t\t" + valueClass(i) + ".class" + (i < VALUE_TYPES - 1 ? "," : ""));
+		}
+		out.println("\t));");
+		out.println();
+		out.println("\tprivate " + CLASS_NAME + "() {");
+		out.println("\t}");
+		for (int i = 0; i < VALUE_TYPES; i++) {
+			out.println();
+			out.println("\tpublic static final class " + valueClass(i) + " extends SyntheticViews.Value {");
+			out.println("\t}");
+		}
+		for (int parameterCount : PARAMETER_COUNTS) {
+			out.println();
+			out.println("\t@ViewName(\"view" + parameterCount + "\")");
+			out.println("\t@ViewParameters({");
+			for (int i = 0; i < parameterCount; i++) {
+				out.println("\t\t\t@ViewParameter(\"" + property(i) + "\")" + (i < parameterCount - 1 ? "," : ""));
+			}
+			out.println("\t})");
+			out.println("\t@Getter");
+			out.println("\t@Setter");
+			out.println("\tpublic static class View" + parameterCount + " implements View {");
+			for (int i = 0; i < parameterCount; i++) {
+				out.println("\t\tprivate " + valueClass(i) + " " + property(i) + ";");
+			}
+			out.println("\t}");
+		}
+		out.println("}");
+	}
+
+	private static String valueClass(int index) {
+		return String.format("V%02d", index);
+	}
+
+	private static String property(int index) {
+		return String.format("p%02d", index);
+	}
+}
@@ -0,0 +1,22 @@
+package com.vaadin.wolfgang.urlparameters;
+
+/**
+ * ConversionCycle lets the benchmarks run the package-private conversion cycle of ViewStateParameters without a
+ * navigation. It lives in the package of the add-on for that purpose only - a changed signature breaks the build of
+ * the benchmarks.
+ */
+public final class ConversionCycle {
+	private ConversionCycle() {
+	}
+
+	/**
+	 * Puts the string values of the current view into the parameters and converts them back, firing every value
+	 *
+	 * @param viewStateParameters the parameters of a UI that has entered a view
+	 * @param parameters          the parameters to be filled
+	 */
+	public static void run(ViewStateParameters viewStateParameters, FragmentCodec.Parameters parameters) {
+		viewStateParameters.externalize(parameters);
+		viewStateParameters.internalize(parameters, false, ViewStateParameters.FiringMode.ALL);
+	}
+}
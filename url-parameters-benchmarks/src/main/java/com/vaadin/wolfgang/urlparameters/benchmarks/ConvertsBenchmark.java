@@ -0,0 +1,62 @@
+package com.vaadin.wolfgang.urlparameters.benchmarks;
+
+import com.google.inject.internal.MoreTypes;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.MultiValueConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the collection converters answer <code>converts</code>: for the type of a supertype of their collection
+ * (Collection&lt;V00&gt;) and for a type they do not convert at all (Set&lt;V00&gt;).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertsBenchmark {
+	@Param({"collection", "multi"})
+	private String converterType;
+
+	private Converter converter;
+	private final Type hit = new MoreTypes.ParameterizedTypeImpl(null, Collection.class, SyntheticTypes.V00.class);
+	private final Type miss = new MoreTypes.ParameterizedTypeImpl(null, Set.class, SyntheticTypes.V00.class);
+
+	@Setup
+	public void setup() {
+		Converter singleValueConverter = SyntheticViews.createConverters().get("converter0");
+		if ("collection".equals(converterType)) {
+			converter = new CollectionValueConverter<>(singleValueConverter, ArrayList.class);
+		} else {
+			converter = new MultiValueConverter<>(singleValueConverter, ArrayList.class);
+		}
+	}
+
+	@Benchmark
+	public boolean convertsSupertype() {
+		return converter.converts(hit);
+	}
+
+	@Benchmark
+	public boolean convertsUnknownType() {
+		return converter.converts(miss);
+	}
+}
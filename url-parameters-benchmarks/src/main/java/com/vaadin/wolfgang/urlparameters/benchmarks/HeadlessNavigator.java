@@ -0,0 +1,33 @@
+package com.vaadin.wolfgang.urlparameters.benchmarks;
+
+import com.vaadin.navigator.NavigationStateManager;
+import com.vaadin.navigator.Navigator;
+import com.vaadin.navigator.View;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * A Navigator that needs neither a UI nor a browser: the navigation state is kept in memory and views are not displayed
+ * anywhere. That is enough to run the whole ViewChangeListener cycle of ViewStateParameters on a plain JVM.
+ */
+public class HeadlessNavigator extends Navigator {
+
+	public HeadlessNavigator(Map<String, ? extends View> views) {
+		// Navigator.init would register itself at the UI - there is none
+		stateManager = new InMemoryStateManager();
+		stateManager.setNavigator(this);
+		display = view -> {
+		};
+		views.forEach(this::addView);
+	}
+
+	private static class InMemoryStateManager implements NavigationStateManager {
+		@Getter
+		@Setter
+		private String state = "";
+		@Setter
+		private Navigator navigator;
+	}
+}
@@ -0,0 +1,106 @@
+package com.vaadin.wolfgang.urlparameters.benchmarks;
+
+import com.vaadin.wolfgang.urlparameters.ConversionCycle;
+import com.vaadin.wolfgang.urlparameters.FragmentCodec;
+import com.vaadin.wolfgang.urlparameters.ParameterFactory;
+import com.vaadin.wolfgang.urlparameters.ViewName;
+import com.vaadin.wolfgang.urlparameters.ViewStateParameterFactory;
+import com.vaadin.wolfgang.urlparameters.ViewStateParameters;
+import com.vaadin.wolfgang.urlparameters.impl.ClasspathParameterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what a fragment change costs: every benchmark runs against a fresh ViewStateParameters per trial that
+ * is attached to a headless navigator and has entered a synthetic view with 1, 10 or 100 parameters.
+ * Run with <code>java -jar target/benchmarks.jar</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigationBenchmark {
+	@Param({"1", "10", "100"})
+	private int parameterCount;
+
+	private HeadlessNavigator navigator;
+	private ViewStateParameters viewStateParameters;
+	private String viewName;
+	private Object[][] parameters;
+	private SyntheticViews.Value[] lastParameterValues;
+	private Class<? extends SyntheticViews.Value> lastParameterClass;
+	private final FragmentCodec.Parameters externalized = new FragmentCodec.Parameters();
+	private int invocation;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		ParameterFactory parameterFactory = new ClasspathParameterFactory(getClass().getPackage().getName(), ViewName.class,
+				"value", SyntheticViews.createConverters());
+		navigator = new HeadlessNavigator(SyntheticViews.createViews());
+		viewStateParameters = new ViewStateParameters(new ViewStateParameterFactory(parameterFactory), navigator);
+		viewName = SyntheticViews.getViewName(parameterCount);
+
+		// two alternating sets of values so that every navigation actually changes the state
+		parameters = new Object[2][parameterCount];
+		for (int i = 0; i < parameterCount; i++) {
+			parameters[0][i] = SyntheticViews.createValue(i, i + 1);
+			parameters[1][i] = SyntheticViews.createValue(i, i + 2);
+		}
+		lastParameterClass = SyntheticViews.getValueClass(parameterCount - 1);
+		lastParameterValues = new SyntheticViews.Value[]{
+				SyntheticViews.createValue(parameterCount - 1, 4711),
+				SyntheticViews.createValue(parameterCount - 1, 4712)
+		};
+
+		viewStateParameters.navigateWithParameters(viewName, parameters[0]);
+	}
+
+	/**
+	 * Builds the fragment out of typed values and runs the complete navigation cycle for it.
+	 */
+	@Benchmark
+	public String navigateWithParameters() {
+		viewStateParameters.navigateWithParameters(viewName, parameters[invocation++ & 1]);
+		return navigator.getState();
+	}
+
+	/**
+	 * Changes one value of the current view, the way a selection listener does. The parameter looked up is the last
+	 * one configured so that lookups by type cannot get lucky.
+	 */
+	@Benchmark
+	public String putElement() {
+		viewStateParameters.putElement(lastParameterClass, lastParameterValues[invocation++ & 1]);
+		return navigator.getState();
+	}
+
+	/**
+	 * The pair that runs on every view change: all values to strings and all strings back to values and setters.
+	 */
+	@Benchmark
+	public Object internalizeExternalize() {
+		externalized.clear();
+		ConversionCycle.run(viewStateParameters, externalized);
+		return externalized;
+	}
+
+	@Benchmark
+	public ViewStateParameters refresh() {
+		viewStateParameters.refresh();
+		return viewStateParameters;
+	}
+}
@@ -0,0 +1,63 @@
+package com.vaadin.wolfgang.urlparameters.benchmarks;
+
+import com.vaadin.wolfgang.urlparameters.impl.PropertyAccessors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Compares the accessors PropertybasedViewStateParameter uses to read and write view properties: generated via the
+ * LambdaMetafactory against calling the read and write methods through reflection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessBenchmark {
+	@Param({"generated", "reflective"})
+	private String accessor;
+
+	private final SyntheticTypes.View1 view = new SyntheticTypes.View1();
+	private final SyntheticTypes.V00 value = (SyntheticTypes.V00) SyntheticViews.createValue(0, 4711);
+	private Function<Object, SyntheticTypes.V00> getter;
+	private BiConsumer<Object, SyntheticTypes.V00> setter;
+
+	@Setup
+	public void setup() throws IntrospectionException {
+		PropertyDescriptor propertyDescriptor = new PropertyDescriptor("p00", SyntheticTypes.View1.class);
+		if ("generated".equals(accessor)) {
+			getter = PropertyAccessors.getter(propertyDescriptor.getReadMethod());
+			setter = PropertyAccessors.setter(propertyDescriptor.getWriteMethod());
+		} else {
+			getter = PropertyAccessors.reflectiveGetter(propertyDescriptor.getReadMethod());
+			setter = PropertyAccessors.reflectiveSetter(propertyDescriptor.getWriteMethod());
+		}
+		view.setP00(value);
+	}
+
+	@Benchmark
+	public Object get() {
+		return getter.apply(view);
+	}
+
+	@Benchmark
+	public void set() {
+		setter.accept(view, value);
+	}
+}
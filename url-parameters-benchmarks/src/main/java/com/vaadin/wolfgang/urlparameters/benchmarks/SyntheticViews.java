@@ -0,0 +1,110 @@
+package com.vaadin.wolfgang.urlparameters.benchmarks;
+
+import com.vaadin.navigator.View;
+import com.vaadin.wolfgang.urlparameters.Converter;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Synthetic views carrying 1, 10 and 100 view parameters. Every parameter has a value type of its own, so looking up a
+ * parameter by the class of its value has to find the right one instead of just taking the first.
+ * The views are plain beans with a getter and a setter per parameter - the way most real views are configured. They
+ * and their value types are generated at build time into SyntheticTypes, see SyntheticTypesGenerator.
+ */
+public final class SyntheticViews {
+
+	private SyntheticViews() {
+	}
+
+	/**
+	 * Value types are told apart by their class, instances of one class by their id
+	 */
+	@Getter
+	@Setter(AccessLevel.PRIVATE)
+	@EqualsAndHashCode
+	public abstract static class Value {
+		private int id;
+
+		static <T extends Value> T create(Supplier<T> factory, int id) {
+			T result = factory.get();
+			((Value) result).setId(id);
+			return result;
+		}
+	}
+
+	public static class ValueConverter<T extends Value> implements Converter<T> {
+		private final Class<T> valueClass;
+		private final Supplier<T> factory;
+
+		ValueConverter(Class<T> valueClass, Supplier<T> factory) {
+			this.valueClass = valueClass;
+			this.factory = factory;
+		}
+
+		@Override
+		public Type getInternalClass() {
+			return valueClass;
+		}
+
+		@Override
+		public T getInternalObject(String stringRepresentation) {
+			if (stringRepresentation == null || stringRepresentation.isEmpty()) {
+				return null;
+			}
+			return Value.create(factory, Integer.parseInt(stringRepresentation));
+		}
+
+		@Override
+		public String getStringRepresentation(T o) {
+			return Integer.toString(o.getId());
+		}
+	}
+
+	/**
+	 * Gets the name of the synthetic view having the given number of parameters.
+	 *
+	 * @param parameterCount one of 1, 10 or 100
+	 * @return the view name
+	 */
+	public static String getViewName(int parameterCount) {
+		return "view" + parameterCount;
+	}
+
+	public static Map<String, View> createViews() {
+		Map<String, View> result = new HashMap<>();
+		result.put(getViewName(1), new SyntheticTypes.View1());
+		result.put(getViewName(10), new SyntheticTypes.View10());
+		result.put(getViewName(100), new SyntheticTypes.View100());
+		return result;
+	}
+
+	public static Map<String, Converter> createConverters() {
+		Map<String, Converter> result = new HashMap<>();
+		for (int i = 0; i < SyntheticTypes.VALUE_CLASSES.size(); i++) {
+			result.put("converter" + i, new ValueConverter(SyntheticTypes.VALUE_CLASSES.get(i), SyntheticTypes.FACTORIES.get(i)));
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a value for the parameter at position index.
+	 *
+	 * @param index the position of the parameter (0..99)
+	 * @param id    the id of the value
+	 * @return a value of the type the parameter at index is configured for
+	 */
+	public static Value createValue(int index, int id) {
+		return Value.create(SyntheticTypes.FACTORIES.get(index), id);
+	}
+
+	public static Class<? extends Value> getValueClass(int index) {
+		return SyntheticTypes.VALUE_CLASSES.get(index);
+	}
+}
@@ -12,9 +12,9 @@ import com.vaadin.ui.UI;
 import com.vaadin.wolfgang.demo.component.Header;
 import com.vaadin.wolfgang.demo.data.ValueObject;
 import com.vaadin.wolfgang.urlparameters.*;
-import com.vaadin.wolfgang.urlparameters.impl.ClasspathParameterFactory;
 import com.vaadin.wolfgang.urlparameters.impl.CollectionValueConverter;
 import com.vaadin.wolfgang.urlparameters.impl.EnumValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.RegistryParameterFactory;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.servlet.annotation.WebServlet;
@@ -70,7 +70,7 @@ public class DemoUI extends UI {
 			}
 		};
 
-		ParameterFactory parameterFactory = new ClasspathParameterFactory("com.vaadin.wolfgang.demo", ViewName.class, "value", converters);
+		ParameterFactory parameterFactory = RegistryParameterFactory.create("com.vaadin.wolfgang.demo", ViewName.class, "value", converters);
 		ViewStateParameterFactory viewStateParameterFactory = new ViewStateParameterFactory(parameterFactory);
 		ViewStateParameters vsp = new ViewStateParameters(viewStateParameterFactory, navigator);
 		navigator.addView("one", new ViewOne(vsp));
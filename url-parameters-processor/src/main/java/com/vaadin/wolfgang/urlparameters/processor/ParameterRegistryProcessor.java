@@ -0,0 +1,207 @@
+package com.vaadin.wolfgang.urlparameters.processor;
+
+import com.vaadin.wolfgang.urlparameters.ParameterRegistry;
+import com.vaadin.wolfgang.urlparameters.ViewMethodParameter;
+import com.vaadin.wolfgang.urlparameters.ViewName;
+import com.vaadin.wolfgang.urlparameters.ViewParameter;
+import com.vaadin.wolfgang.urlparameters.ViewParameters;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The ParameterRegistryProcessor finds the classes carrying url parameter annotations at compile time and generates a
+ * ParameterRegistry listing them, registered as a service for the RegistryParameterFactory. It is picked up
+ * automatically as soon as the url-parameters-processor artifact is on the compile classpath.
+ * Options:
+ * <ul>
+ * <li><code>-Aurlparameters.registryClass=com.example.MyRegistry</code> sets the name of the generated class (default:
+ * GeneratedParameterRegistry in the package of the first annotated class)</li>
+ * <li><code>-Aurlparameters.viewNameAnnotations=com.vaadin.spring.annotation.SpringView</code> additionally records the
+ * classes carrying these (comma separated) view name annotations</li>
+ * </ul>
+ * The registry only knows the classes of one compilation: when an IDE recompiles single classes, do a full build
+ * before relying on the registry.
+ */
+@SupportedOptions({ParameterRegistryProcessor.REGISTRY_CLASS_OPTION, ParameterRegistryProcessor.VIEW_NAME_ANNOTATIONS_OPTION})
+public class ParameterRegistryProcessor extends AbstractProcessor {
+	public static final String REGISTRY_CLASS_OPTION = "urlparameters.registryClass";
+	public static final String VIEW_NAME_ANNOTATIONS_OPTION = "urlparameters.viewNameAnnotations";
+	private static final String DEFAULT_REGISTRY_CLASS_NAME = "GeneratedParameterRegistry";
+	private static final String SERVICE_FILE = "META-INF/services/" + ParameterRegistry.class.getName();
+
+	private final List<String> registryClassNames = new ArrayList<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		Set<String> result = new LinkedHashSet<>();
+		result.add(ViewParameter.class.getName());
+		result.add(ViewParameters.class.getName());
+		result.add(ViewMethodParameter.class.getName());
+		result.add(ViewName.class.getName());
+		result.addAll(getViewNameAnnotations());
+		return result;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeServiceFile();
+			return false;
+		}
+		Set<String> parameterClassNames = new TreeSet<>();
+		Set<String> methodParameterClassNames = new TreeSet<>();
+		Set<String> viewNameClassNames = new TreeSet<>();
+		List<Element> originatingElements = new ArrayList<>();
+		collect(roundEnv.getElementsAnnotatedWith(ViewParameter.class), parameterClassNames, originatingElements);
+		collect(roundEnv.getElementsAnnotatedWith(ViewParameters.class), parameterClassNames, originatingElements);
+		collect(roundEnv.getElementsAnnotatedWith(ViewMethodParameter.class), methodParameterClassNames, originatingElements);
+		collect(roundEnv.getElementsAnnotatedWith(ViewName.class), viewNameClassNames, originatingElements);
+		for (String viewNameAnnotation : getViewNameAnnotations()) {
+			TypeElement annotation = processingEnv.getElementUtils().getTypeElement(viewNameAnnotation);
+			if (annotation == null) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "View name annotation " + viewNameAnnotation + " not found");
+			} else {
+				collect(roundEnv.getElementsAnnotatedWith(annotation), viewNameClassNames, originatingElements);
+			}
+		}
+		if (!originatingElements.isEmpty()) {
+			writeRegistry(parameterClassNames, methodParameterClassNames, viewNameClassNames, originatingElements);
+		}
+		// other processors may be interested in the annotations as well
+		return false;
+	}
+
+	private Set<String> getViewNameAnnotations() {
+		Set<String> result = new LinkedHashSet<>();
+		String option = processingEnv != null ? processingEnv.getOptions().get(VIEW_NAME_ANNOTATIONS_OPTION) : null;
+		if (option != null) {
+			for (String annotation : option.split(",")) {
+				if (!annotation.trim().isEmpty()) {
+					result.add(annotation.trim());
+				}
+			}
+		}
+		return result;
+	}
+
+	private void collect(Collection<? extends Element> annotatedElements, Set<String> classNames, List<Element> originatingElements) {
+		for (Element element : annotatedElements) {
+			Element typeElement = element;
+			while (typeElement != null && !(typeElement instanceof TypeElement)) {
+				typeElement = typeElement.getEnclosingElement();
+			}
+			if (typeElement != null && classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) typeElement).toString())) {
+				originatingElements.add(typeElement);
+			}
+		}
+	}
+
+	/*
+	every round that finds annotated classes gets a registry class of its own - a generated source cannot be rewritten
+	 */
+	private void writeRegistry(Collection<String> parameterClassNames, Collection<String> methodParameterClassNames, Collection<String> viewNameClassNames, List<Element> originatingElements) {
+		String registryClassName = processingEnv.getOptions().get(REGISTRY_CLASS_OPTION);
+		if (registryClassName == null) {
+			String packageName = getPackageNames(originatingElements).first();
+			registryClassName = (packageName.isEmpty() ? "" : packageName + ".") + DEFAULT_REGISTRY_CLASS_NAME;
+		}
+		if (!registryClassNames.isEmpty()) {
+			registryClassName += registryClassNames.size() + 1;
+		}
+		int lastDot = registryClassName.lastIndexOf('.');
+		String packageName = lastDot > -1 ? registryClassName.substring(0, lastDot) : null;
+		String simpleName = registryClassName.substring(lastDot + 1);
+		try {
+			JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(registryClassName, originatingElements.toArray(new Element[0]));
+			try (PrintWriter out = new PrintWriter(sourceFile.openWriter())) {
+				if (packageName != null) {
+					out.println("package " + packageName + ";");
+					out.println();
+				}
+				out.println("import " + ParameterRegistry.class.getName() + ";");
+				out.println();
+				out.println("import java.util.Arrays;");
+				out.println("import java.util.Collection;");
+				out.println("import java.util.Collections;");
+				out.println();
+				out.println("/**");
+				out.println(" * Generated by " + getClass().getName() + " - do not edit.");
+				out.println(" */");
+				out.println("public final class " + simpleName + " implements " + ParameterRegistry.class.getSimpleName() + " {");
+				writeNames(out, "PARAMETER_CLASS_NAMES", parameterClassNames);
+				writeNames(out, "METHOD_PARAMETER_CLASS_NAMES", methodParameterClassNames);
+				writeNames(out, "VIEW_NAME_CLASS_NAMES", viewNameClassNames);
+				writeGetter(out, "getParameterClassNames", "PARAMETER_CLASS_NAMES");
+				writeGetter(out, "getMethodParameterClassNames", "METHOD_PARAMETER_CLASS_NAMES");
+				writeGetter(out, "getViewNameClassNames", "VIEW_NAME_CLASS_NAMES");
+				out.println("}");
+			}
+			registryClassNames.add(registryClassName);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write parameter registry " + registryClassName + ": " + e);
+		}
+	}
+
+	private TreeSet<String> getPackageNames(List<Element> elements) {
+		TreeSet<String> result = new TreeSet<>();
+		for (Element element : elements) {
+			result.add(processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString());
+		}
+		return result;
+	}
+
+	private static void writeNames(PrintWriter out, String constantName, Collection<String> classNames) {
+		out.print("\tprivate static final Collection<String> " + constantName + " = Collections.unmodifiableList(Arrays.asList(");
+		String separator = "";
+		for (String className : classNames) {
+			out.println(separator);
+			out.print("\t\t\t\"" + className + "\"");
+			separator = ",";
+		}
+		out.println("));");
+	}
+
+	private static void writeGetter(PrintWriter out, String methodName, String constantName) {
+		out.println();
+		out.println("\t@Override");
+		out.println("\tpublic Collection<String> " + methodName + "() {");
+		out.println("\t\treturn " + constantName + ";");
+		out.println("\t}");
+	}
+
+	private void writeServiceFile() {
+		if (registryClassNames.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject serviceFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+			try (PrintWriter out = new PrintWriter(serviceFile.openWriter())) {
+				registryClassNames.forEach(out::println);
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + SERVICE_FILE + ": " + e);
+		}
+	}
+}
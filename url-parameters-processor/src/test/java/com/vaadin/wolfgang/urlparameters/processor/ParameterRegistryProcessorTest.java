@@ -0,0 +1,65 @@
+package com.vaadin.wolfgang.urlparameters.processor;
+
+import com.vaadin.wolfgang.urlparameters.Converter;
+import com.vaadin.wolfgang.urlparameters.ParameterFactory;
+import com.vaadin.wolfgang.urlparameters.ParameterRegistry;
+import com.vaadin.wolfgang.urlparameters.ViewName;
+import com.vaadin.wolfgang.urlparameters.ViewParameter;
+import com.vaadin.wolfgang.urlparameters.ViewParameters;
+import com.vaadin.wolfgang.urlparameters.ViewStateParameter;
+import com.vaadin.wolfgang.urlparameters.impl.EnumValueConverter;
+import com.vaadin.wolfgang.urlparameters.impl.RegistryParameterFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * The views below are compiled together with this test, so the processor generates a registry for them
+ */
+public class ParameterRegistryProcessorTest {
+	@Test
+	public void registryGeneratedTest() {
+		ParameterRegistry registry = ServiceLoader.load(ParameterRegistry.class).iterator().next();
+
+		Assert.assertTrue(registry.getParameterClassNames().contains(Outer.InnerView.class.getName()));
+		Assert.assertTrue(registry.getParameterClassNames().contains(RegisteredView.class.getName()));
+		Assert.assertTrue(registry.getViewNameClassNames().contains(Outer.InnerView.class.getName()));
+		Assert.assertTrue(registry.getMethodParameterClassNames().isEmpty());
+	}
+
+	@Test
+	public void factoryUsesRegistryTest() {
+		Map<String, Converter> converters = new HashMap<>();
+		converters.put("mode", new EnumValueConverter<>(Mode.class));
+		ParameterFactory candidate = RegistryParameterFactory.create("com.vaadin.wolfgang.urlparameters.processor", ViewName.class, "value", converters);
+
+		Assert.assertTrue(candidate instanceof RegistryParameterFactory);
+		Assert.assertEquals(candidate.getViewName(RegisteredView.class.getName()), "registered");
+		Collection<ViewStateParameter> parameters = candidate.getViewStateParameterIndex("registered").getParameters();
+		Assert.assertEquals(parameters.size(), 2);
+		Assert.assertEquals(candidate.getViewStateParameterIndex("inner").getParameters().size(), 1);
+	}
+
+	public enum Mode {
+		SHOW, EDIT
+	}
+
+	@ViewName("registered")
+	@ViewParameters({
+			@ViewParameter(value = "mode", valueClass = Mode.class),
+			@ViewParameter(value = "other", valueClass = Mode.class, defaultValue = "SHOW")
+	})
+	public static class RegisteredView {
+	}
+
+	public static class Outer {
+		@ViewName("inner")
+		@ViewParameter(value = "mode", valueClass = Mode.class)
+		public static class InnerView {
+		}
+	}
+}